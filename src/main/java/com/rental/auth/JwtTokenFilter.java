@@ -1,5 +1,6 @@
 package com.rental.auth;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.ServletRequest;
@@ -12,15 +13,19 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.filter.GenericFilterBean;
 
 import java.io.IOException;
+import java.util.UUID;
 
 public class JwtTokenFilter extends GenericFilterBean {
 
     private final UserDetailsService userDetailsService;
     private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList tokenRevocationList;
 
-    public JwtTokenFilter(UserDetailsService userDetailsService, JwtTokenProvider jwtTokenProvider) {
+    public JwtTokenFilter(UserDetailsService userDetailsService, JwtTokenProvider jwtTokenProvider,
+                          TokenRevocationList tokenRevocationList) {
         this.userDetailsService = userDetailsService;
         this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     private String getTokenFromRequest(HttpServletRequest request) {
@@ -36,8 +41,9 @@ public class JwtTokenFilter extends GenericFilterBean {
             throws IOException, ServletException {
 
         String token = getTokenFromRequest((HttpServletRequest) request);
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            String email = jwtTokenProvider.getEmailFromToken(token);
+        Claims claims = token != null ? jwtTokenProvider.parseClaims(token, JwtTokenProvider.ACCESS) : null;
+        if (claims != null && !isRevoked(claims)) {
+            String email = claims.getSubject();
             UserDetails userDetails = userDetailsService.loadUserByUsername(email);
 
             UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -46,4 +52,11 @@ public class JwtTokenFilter extends GenericFilterBean {
 
         filterChain.doFilter(request, response);
     }
+
+    private boolean isRevoked(Claims claims) {
+        UUID tokenId = JwtTokenProvider.getTokenId(claims);
+        UUID familyId = JwtTokenProvider.getFamilyId(claims);
+        // tokens without ids predate revocation support and cannot be revoked
+        return tokenRevocationList.isRevoked(tokenId) || tokenRevocationList.isRevoked(familyId);
+    }
 }
\ No newline at end of file
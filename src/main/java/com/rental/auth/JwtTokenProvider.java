@@ -3,6 +3,8 @@ package com.rental.auth;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.security.WeakKeyException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,18 +13,28 @@ import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 @Component
 public class JwtTokenProvider {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    public static final String TYPE_CLAIM = "typ";
+    public static final String FAMILY_CLAIM = "fam";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
     @Value("${app.jwtSecret}")
     private String jwtSecret;
 
+    // Access tokens are short-lived, refresh tokens are rotated on every use
     @Value("${app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    @Value("${app.jwtRefreshExpirationMs}")
+    private long jwtRefreshExpirationMs;
+
 
     private Key getSignKey() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
@@ -30,29 +42,63 @@ public class JwtTokenProvider {
     }
 
     public String generateToken(String email) {
+        return generateToken(email, ACCESS, UUID.randomUUID(), jwtExpirationMs);
+    }
+
+    /**
+     * Starts a new token family (one per login). Revoking the family id revokes every
+     * access and refresh token issued from that login.
+     */
+    public TokenPair generateTokens(String email) {
+        return generateTokens(email, UUID.randomUUID());
+    }
+
+    public TokenPair generateTokens(String email, UUID familyId) {
+        return new TokenPair(email,
+                generateToken(email, ACCESS, familyId, jwtExpirationMs),
+                generateToken(email, REFRESH, familyId, jwtRefreshExpirationMs));
+    }
+
+    private String generateToken(String email, String type, UUID familyId, long expirationMs) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        Key signKey = getSignKey();
+        Date expiryDate = new Date(now.getTime() + expirationMs);
 
         Claims claims = Jwts.claims().setSubject(email);
 
         return Jwts.builder()
-                .setSubject(email)
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .claim("email", email)
+                .claim(TYPE_CLAIM, type)
+                .claim(FAMILY_CLAIM, familyId.toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(SignatureAlgorithm.ES256, getSignKey())
+                .signWith(getSignKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    public long getRefreshExpirationMs() {
+        return jwtRefreshExpirationMs;
+    }
+
+    /**
+     * @return the claims of a correctly signed, unexpired token, or null
+     */
+    public Claims parseClaims(String token) {
+        return parseClaims(token, null);
+    }
+
+    /**
+     * @param expectedType {@link #ACCESS} or {@link #REFRESH}, null for either
+     */
+    public Claims parseClaims(String token, String expectedType) {
         try {
-            Jwts
-                    .parser()
-                    .setSigningKey(getSignKey())
-                    .parseClaimsJws(token);
-            return true;
+            Claims claims = parser().parseClaimsJws(token).getBody();
+            if (expectedType != null && !expectedType.equals(claims.get(TYPE_CLAIM, String.class))) {
+                logger.error("JWT token is not a {} token", expectedType);
+                return null;
+            }
+            return claims;
         } catch (SignatureException ex) {
             logger.error("Invalid JWT signature: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
@@ -61,20 +107,34 @@ public class JwtTokenProvider {
             logger.error("JWT token is expired: {}", ex.getMessage());
         } catch (UnsupportedJwtException ex) {
             logger.error("JWT token is unsupported: {}", ex.getMessage());
+        } catch (RequiredTypeException ex) {
+            logger.error("JWT token has a claim of the wrong type: {}", ex.getMessage());
+        } catch (WeakKeyException ex) {
+            logger.error("app.jwtSecret is too short for HS256: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             logger.error("JWT claims string is empty: {}", ex.getMessage());
         }
-        return false;
+        return null;
+    }
+
+    private JwtParser parser() {
+        return Jwts.parserBuilder().setSigningKey(getSignKey()).build();
+    }
+
+    public static UUID getTokenId(Claims claims) {
+        return toUuid(claims.getId());
     }
 
-    public String getEmailFromToken(String token) {
-        System.out.println("token :" + token);
-        String email = Jwts
-                .parser()
-                .setSigningKey(getSignKey())
-                .parseClaimsJws(token)
-                .getBody().getSubject();
+    public static UUID getFamilyId(Claims claims) {
+        Object familyId = claims.get(FAMILY_CLAIM);
+        return familyId instanceof String ? toUuid((String) familyId) : null;
+    }
 
-        return email;
+    private static UUID toUuid(String value) {
+        try {
+            return value != null ? UUID.fromString(value) : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
     }
-}
\ No newline at end of file
+}
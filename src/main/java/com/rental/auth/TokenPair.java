@@ -0,0 +1,26 @@
+package com.rental.auth;
+
+public class TokenPair {
+    private final String email;
+    private final String accessToken;
+    private final String refreshToken;
+
+    public TokenPair(String email, String accessToken, String refreshToken) {
+        this.email = email;
+        this.accessToken = accessToken;
+        this.refreshToken = refreshToken;
+    }
+
+    // Subject of both tokens
+    public String getEmail() {
+        return email;
+    }
+
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
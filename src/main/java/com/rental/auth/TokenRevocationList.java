@@ -0,0 +1,223 @@
+package com.rental.auth;
+
+import com.rental.cache.InvalidationBus;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Revoked token and token family ids, each kept only until the tokens it covers would
+ * have expired anyway. Lookups are a single hash probe; expiry is driven by a hashed
+ * timing wheel so purging never scans the whole set. Revocations are appended to a local
+ * journal and replayed at startup, and shared with the other nodes through the
+ * {@link InvalidationBus}, which keeps them until they expire so that a node started later
+ * (with an empty journal) receives them too.
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private static final int WHEEL_SIZE = 256;
+
+    public static final String ENTITY_TYPE = "token";
+
+    // id -> epoch ms after which the entry can be dropped
+    private final Map<UUID, Long> revoked = new ConcurrentHashMap<>();
+    private final Queue<UUID>[] wheel;
+    private final long tickMs;
+    private long lastTick;
+
+    private final InvalidationBus invalidationBus;
+    private final Path journalFile;
+    private BufferedWriter journal;
+    private long journalLines;
+
+    @SuppressWarnings("unchecked")
+    public TokenRevocationList(InvalidationBus invalidationBus,
+                               @Value("${app.auth.revocationTickMs:60000}") long tickMs,
+                               @Value("${app.auth.revocationFile:data/revoked-tokens.log}") String journalFile) {
+        this.invalidationBus = invalidationBus;
+        this.tickMs = tickMs;
+        this.journalFile = Path.of(journalFile);
+        this.wheel = new Queue[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = System.currentTimeMillis() / tickMs;
+        invalidationBus.subscribe(ENTITY_TYPE, this::revokedElsewhere);
+    }
+
+    public boolean isRevoked(UUID id) {
+        return id != null && revoked.containsKey(id);
+    }
+
+    /**
+     * @return whether this call revoked the id, false when it already was (or has expired)
+     */
+    public boolean revoke(UUID id, long expiresAtMs) {
+        if (!add(id, expiresAtMs)) {
+            return false;
+        }
+        // same format as the journal lines; kept in the log until it expires, for nodes started later
+        invalidationBus.publish(ENTITY_TYPE, id + " " + expiresAtMs, expiresAtMs);
+        return true;
+    }
+
+    private boolean add(UUID id, long expiresAtMs) {
+        if (id == null || expiresAtMs <= System.currentTimeMillis()) {
+            return false;
+        }
+        if (revoked.putIfAbsent(id, expiresAtMs) == null) {
+            schedule(id, expiresAtMs);
+            append(id, expiresAtMs);
+            return true;
+        }
+        return false;
+    }
+
+    private void revokedElsewhere(String key) {
+        String[] parts = key.split(" ");
+        try {
+            add(UUID.fromString(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException ex) {
+            logger.warn("Skipping malformed remote revocation: {}", key);
+        }
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void schedule(UUID id, long expiresAtMs) {
+        // the slot after the one holding the expiry, so the entry is past due when visited
+        wheel[(int) ((expiresAtMs / tickMs + 1) % WHEEL_SIZE)].add(id);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.revocationTickMs:60000}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMs;
+        // catch up on missed ticks, at most one full turn of the wheel
+        long from = Math.max(lastTick + 1, currentTick - WHEEL_SIZE + 1);
+        for (long t = from; t <= currentTick; t++) {
+            Queue<UUID> slot = wheel[(int) (t % WHEEL_SIZE)];
+            // entries expiring further out stay in their slot for another turn
+            for (int pending = slot.size(); pending > 0; pending--) {
+                UUID id = slot.poll();
+                if (id == null) {
+                    break;
+                }
+                Long expiresAt = revoked.get(id);
+                if (expiresAt == null) {
+                    continue;
+                }
+                if (expiresAt <= now) {
+                    revoked.remove(id);
+                } else {
+                    slot.add(id);
+                }
+            }
+        }
+        lastTick = currentTick;
+        if (journalLines > 2L * revoked.size() + 1024) {
+            compactJournal();
+        }
+    }
+
+    @PostConstruct
+    public synchronized void load() {
+        long now = System.currentTimeMillis();
+        if (Files.exists(journalFile)) {
+            try {
+                for (String line : Files.readAllLines(journalFile, StandardCharsets.UTF_8)) {
+                    String[] parts = line.split(" ");
+                    if (parts.length != 2) {
+                        continue;
+                    }
+                    try {
+                        UUID id = UUID.fromString(parts[0]);
+                        long expiresAt = Long.parseLong(parts[1]);
+                        if (expiresAt > now && revoked.putIfAbsent(id, expiresAt) == null) {
+                            schedule(id, expiresAt);
+                        }
+                    } catch (IllegalArgumentException ex) {
+                        logger.warn("Skipping malformed revocation entry: {}", line);
+                    }
+                }
+            } catch (IOException ex) {
+                logger.error("Could not read revocation journal {}: {}", journalFile, ex.getMessage());
+            }
+        }
+        compactJournal();
+        logger.info("Token revocation list loaded: {} active entries", revoked.size());
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException ex) {
+                logger.error("Could not close revocation journal: {}", ex.getMessage());
+            }
+            journal = null;
+        }
+    }
+
+    private synchronized void append(UUID id, long expiresAtMs) {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.write(id + " " + expiresAtMs);
+            journal.newLine();
+            journal.flush();
+            journalLines++;
+        } catch (IOException ex) {
+            logger.error("Could not persist revocation of {}: {}", id, ex.getMessage());
+        }
+    }
+
+    // Rewrites the journal with the live entries only, then reopens it for appending
+    private synchronized void compactJournal() {
+        close();
+        List<String> lines = new ArrayList<>(revoked.size());
+        revoked.forEach((id, expiresAt) -> lines.add(id + " " + expiresAt));
+        try {
+            Path parent = journalFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = journalFile.resolveSibling(journalFile.getFileName() + ".tmp");
+            Files.write(tmp, lines, StandardCharsets.UTF_8);
+            Files.move(tmp, journalFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journalLines = lines.size();
+            journal = Files.newBufferedWriter(journalFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            logger.error("Could not rewrite revocation journal {}: {}", journalFile, ex.getMessage());
+        }
+    }
+}
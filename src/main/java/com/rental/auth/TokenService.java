@@ -0,0 +1,67 @@
+package com.rental.auth;
+
+import io.jsonwebtoken.Claims;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes token pairs. Each refresh token can be used once: using it
+ * revokes it and returns a new pair of the same family. Presenting an already used
+ * refresh token revokes the whole family, since one of the two holders is not the user.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final TokenRevocationList tokenRevocationList;
+
+    public TokenService(JwtTokenProvider jwtTokenProvider, TokenRevocationList tokenRevocationList) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    public TokenPair login(String email) {
+        return jwtTokenProvider.generateTokens(email);
+    }
+
+    public TokenPair refresh(String refreshToken) {
+        Claims claims = refreshToken != null ? jwtTokenProvider.parseClaims(refreshToken, JwtTokenProvider.REFRESH) : null;
+        UUID tokenId = claims != null ? JwtTokenProvider.getTokenId(claims) : null;
+        UUID familyId = claims != null ? JwtTokenProvider.getFamilyId(claims) : null;
+        if (tokenId == null || familyId == null || tokenRevocationList.isRevoked(familyId)) {
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        // revoking is the check: of two concurrent uses of one token, only one gets to insert
+        if (!tokenRevocationList.revoke(tokenId, claims.getExpiration().getTime())) {
+            logger.warn("Refresh token reuse detected for {}, revoking its session", claims.getSubject());
+            revokeFamily(familyId);
+            throw new BadCredentialsException("Invalid refresh token");
+        }
+        return jwtTokenProvider.generateTokens(claims.getSubject(), familyId);
+    }
+
+    /**
+     * Revokes the sessions the given tokens (access or refresh, possibly null) belong to.
+     */
+    public void logout(String... tokens) {
+        for (String token : tokens) {
+            Claims claims = token != null ? jwtTokenProvider.parseClaims(token) : null;
+            if (claims != null) {
+                tokenRevocationList.revoke(JwtTokenProvider.getTokenId(claims), claims.getExpiration().getTime());
+                revokeFamily(JwtTokenProvider.getFamilyId(claims));
+            }
+        }
+    }
+
+    private void revokeFamily(UUID familyId) {
+        // no token of the family outlives the longest refresh token lifetime
+        tokenRevocationList.revoke(familyId, System.currentTimeMillis() + jwtTokenProvider.getRefreshExpirationMs());
+    }
+}
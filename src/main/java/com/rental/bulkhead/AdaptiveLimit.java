@@ -0,0 +1,107 @@
+package com.rental.bulkhead;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency. Recent latency (a short exponential
+ * average) is compared with a baseline, the lowest latency seen lately: while recent latency
+ * stays within {@code tolerance} times the baseline the limit grows by about its square root
+ * per sample, and once requests start queueing behind a saturated resource the limit shrinks
+ * in proportion. Failures back the limit off directly. With {@code minLimit == maxLimit} the
+ * limit is fixed.
+ */
+public class AdaptiveLimit {
+
+    private static final double RECENT_ALPHA = 2.0 / (10 + 1);
+    // lets a lasting slowdown become the new baseline over a few thousand samples
+    private static final double BASELINE_DRIFT = 1.0 / 1000;
+    private static final double SMOOTHING = 0.2;
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // guarded by this, latencies in nanoseconds
+    private double estimate;
+    private double recentLatency;
+    private double baselineLatency;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit bounds " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimate = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimate;
+    }
+
+    // Never waits: false means the caller should be turned away
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        int concurrent = inFlight.getAndDecrement();
+        if (minLimit == maxLimit) {
+            return;
+        }
+        synchronized (this) {
+            if (failed) {
+                estimate = Math.max(minLimit, estimate * BACKOFF);
+            } else {
+                update(latencyNanos, concurrent);
+            }
+            limit = (int) estimate;
+        }
+    }
+
+    private void update(long latencyNanos, int concurrent) {
+        if (baselineLatency == 0) {
+            recentLatency = latencyNanos;
+            baselineLatency = latencyNanos;
+            return;
+        }
+        recentLatency += RECENT_ALPHA * (latencyNanos - recentLatency);
+        if (latencyNanos < baselineLatency) {
+            baselineLatency = latencyNanos;
+        } else {
+            baselineLatency += BASELINE_DRIFT * (latencyNanos - baselineLatency);
+        }
+        // too little traffic to say anything about a higher limit
+        if (concurrent < estimate / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineLatency / recentLatency));
+        double target = estimate * gradient + Math.sqrt(estimate);
+        estimate = Math.max(minLimit, Math.min(maxLimit, estimate * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public synchronized double getRecentLatencyMs() {
+        return recentLatency / 1_000_000;
+    }
+
+    public synchronized double getBaselineLatencyMs() {
+        return baselineLatency / 1_000_000;
+    }
+}
@@ -0,0 +1,56 @@
+package com.rental.bulkhead;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrency compartment for one route group, so a slow group cannot take every request
+ * thread and database connection from the others.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final List<String> pathPrefixes;
+    private final AdaptiveLimit limit;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public Bulkhead(String name, List<String> pathPrefixes, AdaptiveLimit limit) {
+        this.name = name;
+        this.pathPrefixes = pathPrefixes;
+        this.limit = limit;
+    }
+
+    public boolean tryAcquire() {
+        if (limit.tryAcquire()) {
+            accepted.incrementAndGet();
+            return true;
+        }
+        rejected.incrementAndGet();
+        return false;
+    }
+
+    public void release(long latencyNanos, boolean failed) {
+        limit.release(latencyNanos, failed);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getPathPrefixes() {
+        return pathPrefixes;
+    }
+
+    public AdaptiveLimit getLimit() {
+        return limit;
+    }
+
+    public long getAccepted() {
+        return accepted.get();
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.rental.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.model.request.ErrorRes;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Admits each request into its group's {@link Bulkhead} or answers 503 right away. Runs
+ * ahead of the security chain so shed requests cost no token parsing or user lookup.
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final BulkheadRegistry registry;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(BulkheadRegistry registry, ObjectMapper objectMapper) {
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Bulkhead bulkhead = registry.forPath(path);
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!bulkhead.tryAcquire()) {
+            reject(response, bulkhead);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            bulkhead.release(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void reject(HttpServletResponse response, Bulkhead bulkhead) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorRes errorRes = new ErrorRes(HttpStatus.SERVICE_UNAVAILABLE,
+                "Too many concurrent " + bulkhead.getName() + " requests, retry later");
+        objectMapper.writeValue(response.getOutputStream(), errorRes);
+    }
+}
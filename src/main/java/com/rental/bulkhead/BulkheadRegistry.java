@@ -0,0 +1,46 @@
+package com.rental.bulkhead;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The configured bulkheads, matched to requests by the longest path prefix.
+ */
+public class BulkheadRegistry {
+
+    private final List<Bulkhead> bulkheads = new ArrayList<>();
+    // (prefix, bulkhead), longest prefix first
+    private final List<Map.Entry<String, Bulkhead>> prefixes = new ArrayList<>();
+
+    public BulkheadRegistry(BulkheadProperties properties) {
+        properties.getGroups().forEach((name, group) -> {
+            AdaptiveLimit limit = new AdaptiveLimit(group.getInitialLimit(), group.getMinLimit(),
+                    group.getMaxLimit(), properties.getLatencyTolerance());
+            Bulkhead bulkhead = new Bulkhead(name, List.copyOf(group.getPaths()), limit);
+            bulkheads.add(bulkhead);
+            for (String path : group.getPaths()) {
+                prefixes.add(Map.entry(path, bulkhead));
+            }
+        });
+        prefixes.sort(Comparator.comparingInt((Map.Entry<String, Bulkhead> entry) -> entry.getKey().length()).reversed());
+    }
+
+    // null when the path belongs to no group
+    public Bulkhead forPath(String path) {
+        for (Map.Entry<String, Bulkhead> entry : prefixes) {
+            String prefix = entry.getKey();
+            if (path.startsWith(prefix)
+                    && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/')) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    public List<Bulkhead> getBulkheads() {
+        return Collections.unmodifiableList(bulkheads);
+    }
+}
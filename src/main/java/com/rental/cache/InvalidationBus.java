@@ -0,0 +1,367 @@
+package com.rental.cache;
+
+import com.rental.configuration.SchedulingConfig;
+import com.rental.entities.EntityChange;
+import com.rental.repository.EntityChangeRepository;
+import com.rental.stats.QuantileSketch;
+
+import jakarta.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cross-node cache invalidation over the entity_change_log table. Committed changes are
+ * coalesced per (type, key) and written in one batch every flush interval; every node polls
+ * the log and hands other nodes' changes to the listeners subscribed to that entity type.
+ * Local writes are not dispatched back: the writing node updates its own caches directly.
+ *
+ * <p>Changes are kept for the retention period, so a node only catches up on what it missed
+ * while briefly down. Changes published with an expiry (token revocations) are kept until
+ * then instead, and a starting node replays the live ones to its listeners before it serves.
+ *
+ * <p>A change is visible on other nodes at most about flushMs + pollMs after its commit,
+ * plus the time the poll spends in listeners (reloading a rental or a saved search). Flush
+ * and poll run on their own scheduler, not the shared one, so long scheduled jobs such as
+ * the inbox repair do not delay them.
+ * The observed lag, kept in a sketch (see {@link #stats()}), is the reader's clock at
+ * dispatch minus the writer's clock when it flushed the row: it leaves out the up to
+ * flushMs the change waited in the writer's queue, and it is off by the clock skew between
+ * the two nodes, so it is only meaningful with synchronized clocks (NTP keeps skew in the
+ * low milliseconds). Negative values from skew are counted as zero.
+ */
+@Component
+public class InvalidationBus implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private static final char SEPARATOR = '|';
+
+    private final EntityChangeRepository entityChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final int pollBatchSize;
+    private final long graceMs;
+    private final long retentionMs;
+    private final long maxStalenessMs;
+
+    private final Map<String, List<InvalidationListener>> listeners = new ConcurrentHashMap<>();
+    // "type|key" -> epoch ms until which the row must be kept, 0 for the retention period;
+    // coalesces repeated writes of the same entity within one flush interval
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+
+    // poller state, only touched by the scheduled poll
+    private volatile boolean started;
+    private long watermark;
+    private final Set<Long> seenAboveWatermark = new HashSet<>();
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong lastLagMs = new AtomicLong();
+    // guarded by itself
+    private final QuantileSketch lag = new QuantileSketch(0.01);
+
+    public InvalidationBus(EntityChangeRepository entityChangeRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.cache.nodeId:}") String nodeId,
+                           @Value("${app.cache.pollBatchSize:1000}") int pollBatchSize,
+                           @Value("${app.cache.graceMs:5000}") long graceMs,
+                           @Value("${app.cache.retentionMs:3600000}") long retentionMs,
+                           @Value("${app.cache.maxStalenessMs:2000}") long maxStalenessMs) {
+        this.entityChangeRepository = entityChangeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        this.pollBatchSize = pollBatchSize;
+        this.graceMs = graceMs;
+        this.retentionMs = retentionMs;
+        this.maxStalenessMs = maxStalenessMs;
+    }
+
+    public void subscribe(String entityType, InvalidationListener listener) {
+        listeners.computeIfAbsent(entityType, type -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    /**
+     * Records a change to broadcast. Inside a transaction it is only queued once the
+     * transaction commits, so rolled back writes are never announced.
+     */
+    public void publish(String entityType, Object key) {
+        publish(entityType, key, 0);
+    }
+
+    /**
+     * Same, for a change every node must know about until {@code keepUntilMs}, including
+     * nodes started after it was published: it outlives the retention period until then
+     * and is replayed at startup.
+     */
+    public void publish(String entityType, Object key, long keepUntilMs) {
+        String change = entityType + SEPARATOR + key;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(change, keepUntilMs);
+                }
+            });
+        } else {
+            enqueue(change, keepUntilMs);
+        }
+    }
+
+    private void enqueue(String change, long keepUntilMs) {
+        published.incrementAndGet();
+        if (pending.putIfAbsent(change, keepUntilMs) != null) {
+            pending.merge(change, keepUntilMs, Math::max);
+            coalesced.incrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.flushMs:100}", scheduler = SchedulingConfig.INVALIDATION_BUS_SCHEDULER)
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, Long> batch = new HashMap<>();
+        for (String change : pending.keySet()) {
+            Long keepUntil = pending.remove(change);
+            if (keepUntil != null) {
+                batch.put(change, keepUntil);
+            }
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<EntityChange> rows = new ArrayList<>(batch.size());
+        for (Map.Entry<String, Long> change : batch.entrySet()) {
+            int separator = change.getKey().indexOf(SEPARATOR);
+            EntityChange row = new EntityChange();
+            row.setEntityType(change.getKey().substring(0, separator));
+            row.setEntityKey(change.getKey().substring(separator + 1));
+            row.setOriginNode(nodeId);
+            row.setCreatedAt(now);
+            row.setKeepUntil(change.getValue() > 0 ? new Timestamp(change.getValue()) : null);
+            rows.add(row);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> entityChangeRepository.saveAll(rows));
+        } catch (RuntimeException ex) {
+            // retried with the next flush
+            batch.forEach((change, keepUntil) -> pending.merge(change, keepUntil, Math::max));
+            logger.error("Could not write {} entity changes: {}", rows.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Sets the watermark before any bean is built from the database, so a change committed
+     * while a cache is being built is always polled afterwards. Rows still inside the grace
+     * period may hide a gap of uncommitted ids, so the watermark stays below them; those
+     * rows are dispatched again on the first poll, which invalidation listeners tolerate.
+     */
+    @PostConstruct
+    public void initWatermark() {
+        watermark = entityChangeRepository.findMaxIdCreatedBefore(new Timestamp(System.currentTimeMillis() - graceMs));
+    }
+
+    // Every listener subscribes in its constructor, so all of them are registered by now
+    @Override
+    public void afterSingletonsInstantiated() {
+        long replayed = replayLiveChanges();
+        started = true;
+        logger.info("Invalidation bus started on node {} after change {}, {} live changes replayed", nodeId, watermark, replayed);
+    }
+
+    // Changes published with an expiry, up to the watermark; the ones above it are polled as usual
+    private long replayLiveChanges() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        long afterId = 0;
+        long replayed = 0;
+        List<EntityChange> rows;
+        do {
+            rows = entityChangeRepository.findLive(afterId, watermark, now, PageRequest.of(0, pollBatchSize));
+            for (EntityChange row : rows) {
+                dispatch(row.getEntityType() + SEPARATOR + row.getEntityKey());
+                afterId = row.getId();
+                replayed++;
+            }
+        } while (rows.size() == pollBatchSize);
+        return replayed;
+    }
+
+    /**
+     * Rows of concurrent transactions can commit out of id order, so rows newer than the
+     * grace period are read again on the next poll and deduplicated by id. The watermark
+     * only moves past rows older than that, and any gap below them has had as long to commit.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.pollMs:500}", scheduler = SchedulingConfig.INVALIDATION_BUS_SCHEDULER)
+    public void poll() {
+        if (!started) {
+            return;
+        }
+        List<EntityChange> rows;
+        do {
+            long cursor = watermark;
+            long cutoff = System.currentTimeMillis() - graceMs;
+            long settled = watermark;
+            rows = entityChangeRepository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, pollBatchSize));
+            Set<String> changes = new LinkedHashSet<>();
+            for (EntityChange row : rows) {
+                if (row.getCreatedAt().getTime() < cutoff) {
+                    settled = row.getId();
+                }
+                if (seenAboveWatermark.add(row.getId()) && !nodeId.equals(row.getOriginNode())) {
+                    changes.add(row.getEntityType() + SEPARATOR + row.getEntityKey());
+                    recordLag(System.currentTimeMillis() - row.getCreatedAt().getTime());
+                }
+            }
+            for (String change : changes) {
+                dispatch(change);
+            }
+            if (settled > watermark) {
+                long newWatermark = settled;
+                watermark = newWatermark;
+                seenAboveWatermark.removeIf(id -> id <= newWatermark);
+            }
+            // a full page of rows still inside the grace period would be read again forever
+            if (rows.size() == pollBatchSize && settled == cursor) {
+                break;
+            }
+        } while (rows.size() == pollBatchSize);
+    }
+
+    private void dispatch(String change) {
+        int separator = change.indexOf(SEPARATOR);
+        List<InvalidationListener> subscribers = listeners.get(change.substring(0, separator));
+        if (subscribers == null) {
+            return;
+        }
+        String key = change.substring(separator + 1);
+        received.incrementAndGet();
+        for (InvalidationListener listener : subscribers) {
+            try {
+                listener.invalidate(key);
+            } catch (RuntimeException ex) {
+                logger.error("Invalidation listener failed for {}: {}", change, ex.getMessage());
+            }
+        }
+    }
+
+    private void recordLag(long lagMs) {
+        lagMs = Math.max(lagMs, 0);
+        lastLagMs.set(lagMs);
+        synchronized (lag) {
+            // the sketch only tracks positive values
+            lag.add(lagMs + 1);
+        }
+        if (lagMs > maxStalenessMs) {
+            logger.warn("Entity change applied {} ms after it was logged (limit {} ms)", lagMs, maxStalenessMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.cleanupMs:600000}")
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        Timestamp before = new Timestamp(now - retentionMs);
+        int deleted = transactionTemplate.execute(status -> entityChangeRepository.deleteExpired(before, new Timestamp(now)));
+        if (deleted > 0) {
+            logger.info("Removed {} entity changes older than {}", deleted, before);
+        }
+    }
+
+    public Stats stats() {
+        synchronized (lag) {
+            return new Stats(nodeId, published.get(), coalesced.get(), received.get(), pending.size(),
+                    lastLagMs.get(), lag.count(), lagQuantile(0.5), lagQuantile(0.99), lag.count() == 0 ? 0 : lag.max() - 1);
+        }
+    }
+
+    private double lagQuantile(double q) {
+        return lag.count() == 0 ? 0 : lag.quantile(q) - 1;
+    }
+
+    public static final class Stats {
+        private final String nodeId;
+        private final long published;
+        private final long coalesced;
+        private final long received;
+        private final int pending;
+        private final long lastLagMs;
+        private final long lagSamples;
+        private final double lagP50Ms;
+        private final double lagP99Ms;
+        private final double lagMaxMs;
+
+        Stats(String nodeId, long published, long coalesced, long received, int pending,
+              long lastLagMs, long lagSamples, double lagP50Ms, double lagP99Ms, double lagMaxMs) {
+            this.nodeId = nodeId;
+            this.published = published;
+            this.coalesced = coalesced;
+            this.received = received;
+            this.pending = pending;
+            this.lastLagMs = lastLagMs;
+            this.lagSamples = lagSamples;
+            this.lagP50Ms = lagP50Ms;
+            this.lagP99Ms = lagP99Ms;
+            this.lagMaxMs = lagMaxMs;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public long getPublished() {
+            return published;
+        }
+
+        public long getCoalesced() {
+            return coalesced;
+        }
+
+        public long getReceived() {
+            return received;
+        }
+
+        public int getPending() {
+            return pending;
+        }
+
+        public long getLastLagMs() {
+            return lastLagMs;
+        }
+
+        public long getLagSamples() {
+            return lagSamples;
+        }
+
+        public double getLagP50Ms() {
+            return lagP50Ms;
+        }
+
+        public double getLagP99Ms() {
+            return lagP99Ms;
+        }
+
+        public double getLagMaxMs() {
+            return lagMaxMs;
+        }
+    }
+}
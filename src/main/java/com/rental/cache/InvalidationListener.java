@@ -0,0 +1,10 @@
+package com.rental.cache;
+
+@FunctionalInterface
+public interface InvalidationListener {
+
+    /**
+     * Called for changes made by other nodes. Must be quick and must not throw.
+     */
+    void invalidate(String key);
+}
@@ -0,0 +1,34 @@
+package com.rental.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.bulkhead.BulkheadFilter;
+import com.rental.bulkhead.BulkheadProperties;
+import com.rental.bulkhead.BulkheadRegistry;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig {
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(BulkheadProperties properties) {
+        return new BulkheadRegistry(properties);
+    }
+
+    // Right after character encoding, before the security filter chain
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilter(BulkheadRegistry registry,
+                                                                 BulkheadProperties properties,
+                                                                 ObjectMapper objectMapper) {
+        FilterRegistrationBean<BulkheadFilter> registration =
+                new FilterRegistrationBean<>(new BulkheadFilter(registry, objectMapper));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        registration.setEnabled(properties.isEnabled());
+        return registration;
+    }
+}
@@ -0,0 +1,35 @@
+package com.rental.configuration;
+
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers. {@code taskScheduler} runs every {@code @Scheduled} job that names none,
+ * some of them long (the inbox repair rebuilds a whole table), and is sized with
+ * {@code spring.task.scheduling.pool.size}. The invalidation bus flushes and polls on its
+ * own scheduler, one thread each, so its staleness bound holds whatever the other jobs do.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String INVALIDATION_BUS_SCHEDULER = "invalidationBusScheduler";
+
+    // Declared because any TaskScheduler bean replaces the one Boot would auto-configure
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(INVALIDATION_BUS_SCHEDULER)
+    public ThreadPoolTaskScheduler invalidationBusScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(2);
+        scheduler.setThreadNamePrefix("invalidation-bus-");
+        scheduler.setWaitForTasksToCompleteOnShutdown(true);
+        return scheduler;
+    }
+}
@@ -1,12 +1,15 @@
 package com.rental.controllers;
 
 
-import com.rental.entities.User;
+import com.rental.auth.TokenPair;
+import com.rental.auth.TokenService;
 import com.rental.model.request.LoginReq;
 import com.rental.model.request.ErrorRes;
+import com.rental.model.request.RefreshReq;
 import com.rental.model.response.LoginRes;
 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -17,16 +20,16 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
 
 @Controller
-@RequestMapping("/rest/auth")
+@RequestMapping("/api/auth")
 public class AuthController {
 
     private final AuthenticationManager authenticationManager;
 
 
-    private JwtUtil jwtUtil;
-    public AuthController(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    private final TokenService tokenService;
+    public AuthController(AuthenticationManager authenticationManager, TokenService tokenService) {
         this.authenticationManager = authenticationManager;
-        this.jwtUtil = jwtUtil;
+        this.tokenService = tokenService;
 
     }
 
@@ -38,10 +41,8 @@ public class AuthController {
             Authentication authentication =
                     authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginReq.getEmail(), loginReq.getPassword()));
             String email = authentication.getName();
-            User user = new User();
-            user.setEmail(email);
-            String token = jwtUtil.createToken(user);
-            LoginRes loginRes = new LoginRes(email,token);
+            TokenPair tokens = tokenService.login(email);
+            LoginRes loginRes = new LoginRes(email, tokens.getAccessToken(), tokens.getRefreshToken());
 
             return ResponseEntity.ok(loginRes);
 
@@ -53,4 +54,28 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         }
     }
-}
\ No newline at end of file
+
+    @ResponseBody
+    @RequestMapping(value = "/refresh",method = RequestMethod.POST)
+    public ResponseEntity refresh(@RequestBody RefreshReq refreshReq)  {
+
+        try {
+            TokenPair tokens = tokenService.refresh(refreshReq.getRefreshToken());
+            return ResponseEntity.ok(new LoginRes(tokens.getEmail(), tokens.getAccessToken(), tokens.getRefreshToken()));
+
+        }catch (BadCredentialsException e){
+            ErrorRes errorResponse = new ErrorRes(HttpStatus.UNAUTHORIZED, e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+        }
+    }
+
+    @ResponseBody
+    @RequestMapping(value = "/logout",method = RequestMethod.POST)
+    public ResponseEntity logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                 @RequestBody(required = false) RefreshReq refreshReq)  {
+
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        tokenService.logout(accessToken, refreshReq != null ? refreshReq.getRefreshToken() : null);
+        return ResponseEntity.noContent().build();
+    }
+}
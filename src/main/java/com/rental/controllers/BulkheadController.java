@@ -0,0 +1,25 @@
+package com.rental.controllers;
+
+import com.rental.bulkhead.BulkheadRegistry;
+import com.rental.model.response.BulkheadsRes;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/bulkheads")
+public class BulkheadController {
+
+    private final BulkheadRegistry bulkheadRegistry;
+
+    public BulkheadController(BulkheadRegistry bulkheadRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    // Current limit, in-flight, accepted and rejected counts per route group
+    @GetMapping
+    public BulkheadsRes bulkheads() {
+        return new BulkheadsRes(bulkheadRegistry.getBulkheads());
+    }
+}
@@ -0,0 +1,25 @@
+package com.rental.controllers;
+
+import com.rental.cache.InvalidationBus;
+import com.rental.model.response.InvalidationStatsRes;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    private final InvalidationBus invalidationBus;
+
+    public CacheController(InvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    // Publish/receive counters and how far behind this node applies other nodes' changes
+    @GetMapping("/invalidation")
+    public InvalidationStatsRes invalidation() {
+        return new InvalidationStatsRes(invalidationBus.stats());
+    }
+}
@@ -1,5 +1,94 @@
 package com.rental.controllers;
 
+import com.rental.entities.ConversationSummary;
+import com.rental.entities.Rental;
+import com.rental.entities.User;
+import com.rental.model.request.ErrorRes;
+import com.rental.model.request.MessageReq;
+import com.rental.model.response.InboxRes;
+import com.rental.model.response.MessageRes;
+import com.rental.repository.RentalRepository;
+import com.rental.services.MessagesService;
+import com.rental.services.UserService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.sql.Timestamp;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/messages")
 public class MessagesController {
-    
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final MessagesService messagesService;
+    private final RentalRepository rentalRepository;
+    private final UserService userService;
+
+    public MessagesController(MessagesService messagesService, RentalRepository rentalRepository, UserService userService) {
+        this.messagesService = messagesService;
+        this.rentalRepository = rentalRepository;
+        this.userService = userService;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> send(@RequestBody MessageReq messageReq, Principal principal) {
+        if (messageReq.getMessage() == null || messageReq.getMessage().isBlank() || messageReq.getRentalId() == null) {
+            return badRequest("message and rental_id are required");
+        }
+        Rental rental = rentalRepository.findById(messageReq.getRentalId()).orElse(null);
+        if (rental == null) {
+            return badRequest("Unknown rental");
+        }
+        User sender = userService.findByEmail(principal.getName());
+        return new ResponseEntity<>(MessageRes.from(messagesService.send(sender, rental, messageReq.getMessage())), HttpStatus.CREATED);
+    }
+
+    /**
+     * @param cursor {@code next_cursor} of the previous page, absent for the first page
+     */
+    @GetMapping("/inbox")
+    public ResponseEntity<?> inbox(@RequestParam(required = false) String cursor,
+                                   @RequestParam(defaultValue = "20") int limit,
+                                   Principal principal) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return badRequest("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Timestamp before = null;
+        Long beforeRentalId = null;
+        if (cursor != null) {
+            String[] parts = cursor.split("_");
+            try {
+                before = new Timestamp(Long.parseLong(parts[0]));
+                beforeRentalId = Long.parseLong(parts[1]);
+            } catch (RuntimeException e) {
+                return badRequest("Invalid cursor");
+            }
+        }
+        User user = userService.findByEmail(principal.getName());
+        List<ConversationSummary> page = messagesService.inbox(user.getId(), before, beforeRentalId, limit);
+        String nextCursor = null;
+        if (page.size() == limit) {
+            ConversationSummary last = page.get(page.size() - 1);
+            nextCursor = last.getLastActivityAt().getTime() + "_" + last.getRentalId();
+        }
+        return ResponseEntity.ok(new InboxRes(page, nextCursor));
+    }
+
+    @PostMapping("/inbox/{rentalId}/read")
+    public ResponseEntity<?> markRead(@PathVariable Long rentalId, Principal principal) {
+        User user = userService.findByEmail(principal.getName());
+        if (!messagesService.markRead(user.getId(), rentalId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private static ResponseEntity<ErrorRes> badRequest(String message) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorRes(HttpStatus.BAD_REQUEST, message));
+    }
 }
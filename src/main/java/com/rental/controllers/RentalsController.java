@@ -1,5 +1,146 @@
 package com.rental.controllers;
 
+import com.rental.geo.GeoGridIndex;
+import com.rental.geo.RentalFilter;
+import com.rental.model.request.ErrorRes;
+import com.rental.model.response.NearbyRentalRes;
+import com.rental.model.response.PriceStatsRes;
+import com.rental.model.response.RentalsRes;
+import com.rental.services.RentalSearchService;
+import com.rental.services.RentalStatsService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rentals")
 public class RentalsController {
-    
+
+    private static final int MAX_LIMIT = 500;
+    private static final double MAX_RADIUS_KM = 500;
+    private static final int MAX_HISTOGRAM_BINS = 100;
+
+    private final RentalSearchService rentalSearchService;
+    private final RentalStatsService rentalStatsService;
+
+    public RentalsController(RentalSearchService rentalSearchService, RentalStatsService rentalStatsService) {
+        this.rentalSearchService = rentalSearchService;
+        this.rentalStatsService = rentalStatsService;
+    }
+
+    @GetMapping("/near")
+    public ResponseEntity<?> near(@RequestParam double latitude,
+                                  @RequestParam double longitude,
+                                  @RequestParam(defaultValue = "5") double radiusKm,
+                                  @RequestParam(required = false) Double minPrice,
+                                  @RequestParam(required = false) Double maxPrice,
+                                  @RequestParam(required = false) Double minSurface,
+                                  @RequestParam(required = false) Double maxSurface,
+                                  @RequestParam(defaultValue = "50") int limit) {
+        if (!isLatitude(latitude) || !isLongitude(longitude)) {
+            return badRequest("Invalid coordinates");
+        }
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            return badRequest("radiusKm must be in (0, " + MAX_RADIUS_KM + "]");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return badRequest("limit must be between 1 and " + MAX_LIMIT);
+        }
+        RentalFilter filter = new RentalFilter(minPrice, maxPrice, minSurface, maxSurface);
+        return ResponseEntity.ok(toResponse(rentalSearchService.near(latitude, longitude, radiusKm, filter, limit)));
+    }
+
+    @GetMapping("/within")
+    public ResponseEntity<?> within(@RequestParam double minLatitude,
+                                    @RequestParam double minLongitude,
+                                    @RequestParam double maxLatitude,
+                                    @RequestParam double maxLongitude,
+                                    @RequestParam(required = false) Double latitude,
+                                    @RequestParam(required = false) Double longitude,
+                                    @RequestParam(required = false) Double minPrice,
+                                    @RequestParam(required = false) Double maxPrice,
+                                    @RequestParam(required = false) Double minSurface,
+                                    @RequestParam(required = false) Double maxSurface,
+                                    @RequestParam(defaultValue = "50") int limit) {
+        if (!isLatitude(minLatitude) || !isLatitude(maxLatitude) || minLatitude > maxLatitude
+                || !isLongitude(minLongitude) || !isLongitude(maxLongitude)) {
+            return badRequest("Invalid bounding box");
+        }
+        if ((latitude != null && !isLatitude(latitude)) || (longitude != null && !isLongitude(longitude))) {
+            return badRequest("Invalid coordinates");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return badRequest("limit must be between 1 and " + MAX_LIMIT);
+        }
+        // distances are measured from the box center unless an origin is given
+        double lonSpan = maxLongitude >= minLongitude ? maxLongitude - minLongitude : maxLongitude + 360 - minLongitude;
+        double originLat = latitude != null ? latitude : (minLatitude + maxLatitude) / 2;
+        double originLon = longitude != null ? longitude : normalizeLongitude(minLongitude + lonSpan / 2);
+        RentalFilter filter = new RentalFilter(minPrice, maxPrice, minSurface, maxSurface);
+        return ResponseEntity.ok(toResponse(rentalSearchService.within(
+                minLatitude, minLongitude, maxLatitude, maxLongitude, originLat, originLon, filter, limit)));
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats(@RequestParam(required = false) List<Long> owner,
+                                   @RequestParam(required = false) List<String> region,
+                                   @RequestParam(defaultValue = "0.25,0.5,0.75,0.9") List<Double> percentiles,
+                                   @RequestParam(defaultValue = "10") int bins,
+                                   @RequestParam(defaultValue = "false") boolean total) {
+        if (owner != null && region != null) {
+            return badRequest("Group by owner or by region, not both");
+        }
+        for (Double percentile : percentiles) {
+            if (percentile == null || percentile < 0 || percentile > 1) {
+                return badRequest("percentiles must be between 0 and 1");
+            }
+        }
+        if (bins < 1 || bins > MAX_HISTOGRAM_BINS) {
+            return badRequest("bins must be between 1 and " + MAX_HISTOGRAM_BINS);
+        }
+        if (owner != null) {
+            return ResponseEntity.ok(new PriceStatsRes("owner", rentalStatsService.forOwners(owner, total), percentiles, bins));
+        }
+        if (region != null) {
+            for (String prefix : region) {
+                if (prefix.isEmpty() || prefix.length() > rentalStatsService.getRegionPrecision()) {
+                    return badRequest("region must be a geohash of 1 to " + rentalStatsService.getRegionPrecision() + " characters");
+                }
+            }
+            return ResponseEntity.ok(new PriceStatsRes("region", rentalStatsService.forRegions(region, total), percentiles, bins));
+        }
+        return ResponseEntity.ok(new PriceStatsRes("all", Map.of(), rentalStatsService.overall(), percentiles, bins));
+    }
+
+    private static RentalsRes toResponse(List<GeoGridIndex.Hit> hits) {
+        List<NearbyRentalRes> rentals = new ArrayList<>(hits.size());
+        for (GeoGridIndex.Hit hit : hits) {
+            rentals.add(new NearbyRentalRes(hit.getRental(), hit.getDistanceKm()));
+        }
+        return new RentalsRes(rentals);
+    }
+
+    private static ResponseEntity<ErrorRes> badRequest(String message) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new ErrorRes(HttpStatus.BAD_REQUEST, message));
+    }
+
+    private static boolean isLatitude(double latitude) {
+        return latitude >= -90 && latitude <= 90;
+    }
+
+    private static boolean isLongitude(double longitude) {
+        return longitude >= -180 && longitude <= 180;
+    }
+
+    private static double normalizeLongitude(double longitude) {
+        return longitude > 180 ? longitude - 360 : longitude;
+    }
 }
@@ -0,0 +1,95 @@
+package com.rental.controllers;
+
+import com.rental.entities.SavedSearch;
+import com.rental.entities.SearchNotification;
+import com.rental.entities.User;
+import com.rental.model.request.ErrorRes;
+import com.rental.model.request.SavedSearchReq;
+import com.rental.model.response.SavedSearchRes;
+import com.rental.model.response.SearchNotificationRes;
+import com.rental.services.SavedSearchService;
+import com.rental.services.SearchNotificationService;
+import com.rental.services.UserService;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/searches")
+public class SavedSearchController {
+
+    private static final int MAX_NOTIFICATIONS = 100;
+
+    private final SavedSearchService savedSearchService;
+    private final SearchNotificationService searchNotificationService;
+    private final UserService userService;
+
+    public SavedSearchController(SavedSearchService savedSearchService,
+                                 SearchNotificationService searchNotificationService,
+                                 UserService userService) {
+        this.savedSearchService = savedSearchService;
+        this.searchNotificationService = searchNotificationService;
+        this.userService = userService;
+    }
+
+    @GetMapping
+    public List<SavedSearchRes> list(Principal principal) {
+        List<SavedSearchRes> searches = new ArrayList<>();
+        for (SavedSearch search : savedSearchService.findAllByUser(currentUser(principal))) {
+            searches.add(SavedSearchRes.from(search));
+        }
+        return searches;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> create(@RequestBody SavedSearchReq savedSearchReq, Principal principal) {
+        if (isInverted(savedSearchReq.getMinPrice(), savedSearchReq.getMaxPrice())
+                || isInverted(savedSearchReq.getMinSurface(), savedSearchReq.getMaxSurface())) {
+            ErrorRes errorResponse = new ErrorRes(HttpStatus.BAD_REQUEST, "Minimum bounds must not exceed maximum bounds");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        SavedSearch search = new SavedSearch();
+        search.setUser(currentUser(principal));
+        search.setName(savedSearchReq.getName());
+        search.setMinPrice(savedSearchReq.getMinPrice());
+        search.setMaxPrice(savedSearchReq.getMaxPrice());
+        search.setMinSurface(savedSearchReq.getMinSurface());
+        search.setMaxSurface(savedSearchReq.getMaxSurface());
+        search.setKeywords(savedSearchReq.getKeywords());
+        return new ResponseEntity<>(SavedSearchRes.from(savedSearchService.create(search)), HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> delete(@PathVariable Long id, Principal principal) {
+        if (!savedSearchService.delete(id, currentUser(principal))) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/notifications")
+    public ResponseEntity<?> notifications(@RequestParam(defaultValue = "20") int limit, Principal principal) {
+        if (limit < 1 || limit > MAX_NOTIFICATIONS) {
+            ErrorRes errorResponse = new ErrorRes(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + MAX_NOTIFICATIONS);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        List<SearchNotificationRes> notifications = new ArrayList<>();
+        for (SearchNotification notification : searchNotificationService.latest(currentUser(principal).getId(), limit)) {
+            notifications.add(SearchNotificationRes.from(notification));
+        }
+        return ResponseEntity.ok(notifications);
+    }
+
+    private User currentUser(Principal principal) {
+        return userService.findByEmail(principal.getName());
+    }
+
+    private static boolean isInverted(Double min, Double max) {
+        return min != null && max != null && min > max;
+    }
+}
@@ -2,6 +2,7 @@ package com.rental.controllers;
 
 import com.rental.entities.User;
 import com.rental.model.request.RegisterReq;
+import com.rental.model.response.UserRes;
 import com.rental.services.UserService;
 
 import org.springframework.http.HttpStatus;
@@ -37,9 +38,7 @@ public class UserController {
             return new ResponseEntity<>("An error occurred during registration", HttpStatus.INTERNAL_SERVER_ERROR);
         }
 
-        // Assuming you do not want to return the password
-        registeredUser.setPassword(null);
-        return new ResponseEntity<>(registeredUser, HttpStatus.CREATED);
+        return new ResponseEntity<>(UserRes.from(registeredUser), HttpStatus.CREATED);
     }
 
     private User convertToUser(RegisterReq registerReq) {
@@ -0,0 +1,151 @@
+package com.rental.entities;
+
+import java.io.Serializable;
+import java.sql.Timestamp;
+import java.util.Objects;
+
+import jakarta.persistence.*;
+
+/**
+ * One row per participant of a rental's message thread (the owner and every sender),
+ * maintained in the same transaction as each message insert so the inbox never has to
+ * read the messages themselves.
+ */
+@Entity
+@Table(name = "conversation_summaries",
+        indexes = @Index(name = "idx_conversation_inbox", columnList = "user_id, last_activity_at, rental_id"))
+@IdClass(ConversationSummary.Key.class)
+public class ConversationSummary {
+
+    public static final int PREVIEW_LENGTH = 140;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "rental_id")
+    private Long rentalId;
+
+    // 0 until the first message is recorded on a freshly opened row
+    @Column(name = "last_message_id", nullable = false)
+    private Long lastMessageId;
+
+    @Column(name = "last_sender_id")
+    private Long lastSenderId;
+
+    @Column(length = PREVIEW_LENGTH)
+    private String preview;
+
+    @Column(name = "last_activity_at")
+    private Timestamp lastActivityAt;
+
+    @Column(name = "unread_count")
+    private int unreadCount;
+
+    // Lets the repair job recompute unread counts
+    @Column(name = "last_read_message_id", nullable = false)
+    private long lastReadMessageId;
+
+    // Getters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public Timestamp getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    // Setters
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setRentalId(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public void setPreview(String preview) {
+        this.preview = preview;
+    }
+
+    public void setLastActivityAt(Timestamp lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+
+    public void setLastReadMessageId(long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public static String preview(String message) {
+        if (message == null || message.length() <= PREVIEW_LENGTH) {
+            return message;
+        }
+        return message.substring(0, PREVIEW_LENGTH);
+    }
+
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long rentalId;
+
+        public Key() {
+        }
+
+        public Key(Long userId, Long rentalId) {
+            this.userId = userId;
+            this.rentalId = rentalId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key key)) {
+                return false;
+            }
+            return Objects.equals(userId, key.userId) && Objects.equals(rentalId, key.rentalId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, rentalId);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.rental.entities;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.*;
+
+/**
+ * Change log row read by every node's invalidation bus. Ids come from an auto-increment
+ * column so they follow insertion order across nodes, which the pollers rely on.
+ */
+@Entity
+@Table(name = "entity_change_log", indexes = {
+        @Index(name = "idx_entity_change_created", columnList = "created_at"),
+        @Index(name = "idx_entity_change_keep_until", columnList = "keep_until")})
+public class EntityChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_key", nullable = false, length = 128)
+    private String entityKey;
+
+    @Column(name = "origin_node", nullable = false, length = 64)
+    private String originNode;
+
+    @Column(name = "created_at", nullable = false)
+    private Timestamp createdAt;
+
+    // Kept past the retention period until then, and replayed by starting nodes; null for plain changes
+    @Column(name = "keep_until")
+    private Timestamp keepUntil;
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public String getEntityKey() {
+        return entityKey;
+    }
+
+    public String getOriginNode() {
+        return originNode;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Timestamp getKeepUntil() {
+        return keepUntil;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public void setEntityKey(String entityKey) {
+        this.entityKey = entityKey;
+    }
+
+    public void setOriginNode(String originNode) {
+        this.originNode = originNode;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setKeepUntil(Timestamp keepUntil) {
+        this.keepUntil = keepUntil;
+    }
+}
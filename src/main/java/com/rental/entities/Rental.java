@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 
 @Entity
 @Table(name = "rentals")
+@EntityListeners(RentalEntityListener.class)
 public class Rental {
 
     @Id
@@ -17,8 +18,10 @@ public class Rental {
     private Double price;
     private String picture;
     private String description;
+    private Double latitude;
+    private Double longitude;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
@@ -50,6 +53,14 @@ public class Rental {
         return description;
     }
 
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
     public User getOwner() {
         return owner;
     }
@@ -83,6 +94,14 @@ public class Rental {
         this.description = description;
     }
 
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public void setOwner(User owner) {
         this.owner = owner;
     }
@@ -0,0 +1,36 @@
+package com.rental.entities;
+
+import com.rental.events.RentalChangedEvent;
+import com.rental.model.response.RentalRes;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+@Component
+public class RentalEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RentalEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void created(Rental rental) {
+        eventPublisher.publishEvent(new RentalChangedEvent(RentalChangedEvent.Type.CREATED, rental.getId(), RentalRes.from(rental)));
+    }
+
+    @PostUpdate
+    public void updated(Rental rental) {
+        eventPublisher.publishEvent(new RentalChangedEvent(RentalChangedEvent.Type.UPDATED, rental.getId(), RentalRes.from(rental)));
+    }
+
+    @PostRemove
+    public void removed(Rental rental) {
+        eventPublisher.publishEvent(new RentalChangedEvent(RentalChangedEvent.Type.DELETED, rental.getId(), null));
+    }
+}
@@ -0,0 +1,69 @@
+package com.rental.entities;
+
+import java.sql.Timestamp;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "search_notifications",
+        uniqueConstraints = @UniqueConstraint(name = "uk_search_notification_pair", columnNames = {"saved_search_id", "rental_id"}),
+        indexes = @Index(name = "idx_search_notification_user", columnList = "user_id, id"))
+public class SearchNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "saved_search_id", nullable = false)
+    private Long savedSearchId;
+
+    @Column(name = "rental_id", nullable = false)
+    private Long rentalId;
+
+    private Timestamp createdAt;
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getSavedSearchId() {
+        return savedSearchId;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public void setSavedSearchId(Long savedSearchId) {
+        this.savedSearchId = savedSearchId;
+    }
+
+    public void setRentalId(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+
+    public void setCreatedAt(Timestamp createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -2,7 +2,9 @@ package com.rental.entities;
 
 import java.sql.Timestamp;
 import java.util.List;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
@@ -11,6 +13,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserEntityListener.class)
 public class User {
 
     @Id
@@ -20,6 +23,9 @@ public class User {
     private String email;
     private String name;
     private String password;
+    // Spring Security role name without the ROLE_ prefix, null means USER
+    @Column(length = 32)
+    private String role;
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -47,6 +53,10 @@ public class User {
         return password;
     }
 
+    public String getRole() {
+        return role;
+    }
+
     public Timestamp getCreatedAt() {
         return createdAt;
     }
@@ -78,6 +88,10 @@ public class User {
         this.password = password;
     }
 
+    public void setRole(String role) {
+        this.role = role;
+    }
+
     public void setCreatedAt(Timestamp createdAt) {
         this.createdAt = createdAt;
     }
@@ -0,0 +1,46 @@
+package com.rental.events;
+
+import com.rental.model.response.RentalRes;
+
+/**
+ * Published for every rental insert, update or delete. Listeners that keep derived
+ * state should use {@code @TransactionalEventListener} so they only see committed writes.
+ * Remote events replay a write made on another node, already committed there.
+ */
+public class RentalChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+    private final Long rentalId;
+    private final RentalRes rental;
+    private final boolean remote;
+
+    public RentalChangedEvent(Type type, Long rentalId, RentalRes rental) {
+        this(type, rentalId, rental, false);
+    }
+
+    public RentalChangedEvent(Type type, Long rentalId, RentalRes rental, boolean remote) {
+        this.type = type;
+        this.rentalId = rentalId;
+        this.rental = rental;
+        this.remote = remote;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    // Snapshot of the rental as written, null for deletes
+    public RentalRes getRental() {
+        return rental;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rental.events;
+
+/**
+ * Published for every user insert, update or delete made through the entity manager.
+ * Bulk JPQL and native updates bypass entity listeners and publish nothing.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+
+    public UserChangedEvent(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,193 @@
+package com.rental.geo;
+
+import com.rental.model.response.RentalRes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index of rentals, bucketed in fixed-size latitude/longitude cells.
+ * A query only visits the cells overlapping its bounding box. Reads are lock-free,
+ * writes are serialized (they are rare compared to searches).
+ */
+public class GeoGridIndex {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellSize;
+    private final int latCells;
+    private final int lonCells;
+
+    private final Map<Long, RentalRes> byId = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, RentalRes>> cells = new ConcurrentHashMap<>();
+
+    public GeoGridIndex(double cellSizeDegrees) {
+        if (cellSizeDegrees <= 0 || cellSizeDegrees > 90) {
+            throw new IllegalArgumentException("Cell size must be in (0, 90] degrees: " + cellSizeDegrees);
+        }
+        this.cellSize = cellSizeDegrees;
+        this.latCells = (int) Math.ceil(180 / cellSizeDegrees);
+        this.lonCells = (int) Math.ceil(360 / cellSizeDegrees);
+    }
+
+    public synchronized void put(RentalRes rental) {
+        Long id = rental.getId();
+        if (rental.getLatitude() == null || rental.getLongitude() == null) {
+            remove(id);
+            return;
+        }
+        long cell = cellOf(rental.getLatitude(), rental.getLongitude());
+        RentalRes previous = byId.put(id, rental);
+        if (previous != null) {
+            long previousCell = cellOf(previous.getLatitude(), previous.getLongitude());
+            if (previousCell != cell) {
+                removeFromCell(previousCell, id);
+            }
+        }
+        cells.computeIfAbsent(cell, key -> new ConcurrentHashMap<>()).put(id, rental);
+    }
+
+    public synchronized void remove(Long id) {
+        RentalRes previous = byId.remove(id);
+        if (previous != null) {
+            removeFromCell(cellOf(previous.getLatitude(), previous.getLongitude()), id);
+        }
+    }
+
+    public synchronized void clear() {
+        byId.clear();
+        cells.clear();
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Rentals within {@code radiusKm} of the given point, nearest first.
+     */
+    public List<Hit> near(double latitude, double longitude, double radiusKm, Predicate<RentalRes> filter, int limit) {
+        double latDelta = radiusKm / KM_PER_DEGREE;
+        double minLat = latitude - latDelta;
+        double maxLat = latitude + latDelta;
+        double lonDelta;
+        if (minLat <= -90 || maxLat >= 90) {
+            lonDelta = 180;
+        } else {
+            lonDelta = Math.min(180, latDelta / Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat)))));
+        }
+        List<Hit> hits = new ArrayList<>();
+        for (RentalRes rental : candidates(minLat, maxLat, longitude - lonDelta, longitude + lonDelta)) {
+            double distance = distanceKm(latitude, longitude, rental.getLatitude(), rental.getLongitude());
+            if (distance <= radiusKm && filter.test(rental)) {
+                hits.add(new Hit(rental, distance));
+            }
+        }
+        return nearest(hits, limit);
+    }
+
+    /**
+     * Rentals inside the box, ordered by distance from the origin point.
+     * A box with {@code minLongitude > maxLongitude} crosses the antimeridian.
+     */
+    public List<Hit> within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                            double originLatitude, double originLongitude, Predicate<RentalRes> filter, int limit) {
+        double maxLon = maxLongitude < minLongitude ? maxLongitude + 360 : maxLongitude;
+        List<Hit> hits = new ArrayList<>();
+        for (RentalRes rental : candidates(minLatitude, maxLatitude, minLongitude, maxLon)) {
+            double lat = rental.getLatitude();
+            double lon = rental.getLongitude() < minLongitude ? rental.getLongitude() + 360 : rental.getLongitude();
+            if (lat >= minLatitude && lat <= maxLatitude && lon <= maxLon && filter.test(rental)) {
+                hits.add(new Hit(rental, distanceKm(originLatitude, originLongitude, lat, rental.getLongitude())));
+            }
+        }
+        return nearest(hits, limit);
+    }
+
+    // minLon may be below -180 and maxLon above 180 when the range wraps
+    private Collection<RentalRes> candidates(double minLat, double maxLat, double minLon, double maxLon) {
+        int fromLat = latIndex(Math.max(-90, minLat));
+        int toLat = latIndex(Math.min(90, maxLat));
+        boolean fullCircle = maxLon - minLon >= 360;
+        int fromLon = fullCircle ? 0 : lonIndex(minLon);
+        int toLon = fullCircle ? lonCells - 1 : lonIndex(maxLon);
+        int lonCount = toLon >= fromLon ? toLon - fromLon + 1 : lonCells - fromLon + toLon + 1;
+        long cellCount = (long) (toLat - fromLat + 1) * lonCount;
+        if (cellCount >= byId.size()) {
+            // a wide query touches more cells than there are rentals: scan them directly
+            return byId.values();
+        }
+        List<RentalRes> candidates = new ArrayList<>();
+        for (int latIdx = fromLat; latIdx <= toLat; latIdx++) {
+            for (int i = 0; i < lonCount; i++) {
+                Map<Long, RentalRes> cell = cells.get(key(latIdx, (fromLon + i) % lonCells));
+                if (cell != null) {
+                    candidates.addAll(cell.values());
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static List<Hit> nearest(List<Hit> hits, int limit) {
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceKm));
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private void removeFromCell(long cell, Long id) {
+        cells.computeIfPresent(cell, (key, rentals) -> {
+            rentals.remove(id);
+            return rentals.isEmpty() ? null : rentals;
+        });
+    }
+
+    private long cellOf(double latitude, double longitude) {
+        return key(latIndex(latitude), lonIndex(longitude));
+    }
+
+    private long key(int latIdx, int lonIdx) {
+        return (long) latIdx * lonCells + lonIdx;
+    }
+
+    private int latIndex(double latitude) {
+        return Math.min(latCells - 1, Math.max(0, (int) Math.floor((latitude + 90) / cellSize)));
+    }
+
+    private int lonIndex(double longitude) {
+        double normalized = ((longitude + 180) % 360 + 360) % 360;
+        return Math.min(lonCells - 1, (int) Math.floor(normalized / cellSize));
+    }
+
+    // Haversine great-circle distance
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    public static final class Hit {
+        private final RentalRes rental;
+        private final double distanceKm;
+
+        Hit(RentalRes rental, double distanceKm) {
+            this.rental = rental;
+            this.distanceKm = distanceKm;
+        }
+
+        public RentalRes getRental() {
+            return rental;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+}
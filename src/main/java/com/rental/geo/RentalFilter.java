@@ -0,0 +1,35 @@
+package com.rental.geo;
+
+import com.rental.model.response.RentalRes;
+
+import java.util.function.Predicate;
+
+/**
+ * Optional price and surface bounds, all inclusive. A null bound is open.
+ */
+public class RentalFilter implements Predicate<RentalRes> {
+
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Double minSurface;
+    private final Double maxSurface;
+
+    public RentalFilter(Double minPrice, Double maxPrice, Double minSurface, Double maxSurface) {
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minSurface = minSurface;
+        this.maxSurface = maxSurface;
+    }
+
+    @Override
+    public boolean test(RentalRes rental) {
+        return inRange(rental.getPrice(), minPrice, maxPrice) && inRange(rental.getSurface(), minSurface, maxSurface);
+    }
+
+    private static boolean inRange(Double value, Double min, Double max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        return value != null && (min == null || value >= min) && (max == null || value <= max);
+    }
+}
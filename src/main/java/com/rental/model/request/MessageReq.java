@@ -0,0 +1,25 @@
+package com.rental.model.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class MessageReq {
+    private String message;
+    @JsonProperty("rental_id")
+    private Long rentalId;
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public void setRentalId(Long rentalId) {
+        this.rentalId = rentalId;
+    }
+}
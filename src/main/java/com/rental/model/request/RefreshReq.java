@@ -0,0 +1,13 @@
+package com.rental.model.request;
+
+public class RefreshReq {
+    private String refreshToken;
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
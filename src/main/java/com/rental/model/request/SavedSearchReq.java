@@ -0,0 +1,64 @@
+package com.rental.model.request;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class SavedSearchReq {
+    private String name;
+    @JsonProperty("min_price")
+    private Double minPrice;
+    @JsonProperty("max_price")
+    private Double maxPrice;
+    @JsonProperty("min_surface")
+    private Double minSurface;
+    @JsonProperty("max_surface")
+    private Double maxSurface;
+    private String keywords;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public void setMinPrice(Double minPrice) {
+        this.minPrice = minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public void setMaxPrice(Double maxPrice) {
+        this.maxPrice = maxPrice;
+    }
+
+    public Double getMinSurface() {
+        return minSurface;
+    }
+
+    public void setMinSurface(Double minSurface) {
+        this.minSurface = minSurface;
+    }
+
+    public Double getMaxSurface() {
+        return maxSurface;
+    }
+
+    public void setMaxSurface(Double maxSurface) {
+        this.maxSurface = maxSurface;
+    }
+
+    public String getKeywords() {
+        return keywords;
+    }
+
+    public void setKeywords(String keywords) {
+        this.keywords = keywords;
+    }
+}
@@ -0,0 +1,38 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.bulkhead.AdaptiveLimit;
+import com.rental.bulkhead.Bulkhead;
+
+import java.io.IOException;
+import java.util.List;
+
+public class BulkheadsRes implements JsonWritable {
+    private final List<Bulkhead> bulkheads;
+
+    public BulkheadsRes(List<Bulkhead> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("groups");
+        for (Bulkhead bulkhead : bulkheads) {
+            AdaptiveLimit limit = bulkhead.getLimit();
+            generator.writeStartObject();
+            generator.writeStringField("name", bulkhead.getName());
+            generator.writeNumberField("limit", limit.getLimit());
+            generator.writeNumberField("in_flight", limit.getInFlight());
+            generator.writeNumberField("accepted", bulkhead.getAccepted());
+            generator.writeNumberField("rejected", bulkhead.getRejected());
+            generator.writeObjectFieldStart("latency_ms");
+            generator.writeNumberField("recent", Math.round(limit.getRecentLatencyMs() * 100) / 100.0);
+            generator.writeNumberField("baseline", Math.round(limit.getBaselineLatencyMs() * 100) / 100.0);
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,44 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.entities.ConversationSummary;
+
+import java.io.IOException;
+import java.util.List;
+
+public class InboxRes implements JsonWritable {
+    private final List<ConversationSummary> conversations;
+    private final String nextCursor;
+
+    public InboxRes(List<ConversationSummary> conversations, String nextCursor) {
+        this.conversations = conversations;
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("conversations");
+        for (ConversationSummary conversation : conversations) {
+            generator.writeStartObject();
+            JsonWritable.writeNumberField(generator, "rental_id", conversation.getRentalId());
+            JsonWritable.writeNumberField(generator, "last_message_id", conversation.getLastMessageId());
+            JsonWritable.writeNumberField(generator, "last_sender_id", conversation.getLastSenderId());
+            generator.writeStringField("preview", conversation.getPreview());
+            JsonWritable.writeTimestampField(generator, "last_activity_at", conversation.getLastActivityAt());
+            generator.writeNumberField("unread_count", conversation.getUnreadCount());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeStringField("next_cursor", nextCursor);
+        generator.writeEndObject();
+    }
+
+    public List<ConversationSummary> getConversations() {
+        return conversations;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,32 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.cache.InvalidationBus;
+
+import java.io.IOException;
+
+public class InvalidationStatsRes implements JsonWritable {
+    private final InvalidationBus.Stats stats;
+
+    public InvalidationStatsRes(InvalidationBus.Stats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("node_id", stats.getNodeId());
+        generator.writeNumberField("published", stats.getPublished());
+        generator.writeNumberField("coalesced", stats.getCoalesced());
+        generator.writeNumberField("pending", stats.getPending());
+        generator.writeNumberField("received", stats.getReceived());
+        generator.writeObjectFieldStart("lag_ms");
+        generator.writeNumberField("samples", stats.getLagSamples());
+        generator.writeNumberField("last", stats.getLastLagMs());
+        generator.writeNumberField("p50", Math.round(stats.getLagP50Ms()));
+        generator.writeNumberField("p99", Math.round(stats.getLagP99Ms()));
+        generator.writeNumberField("max", Math.round(stats.getLagMaxMs()));
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,47 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+/**
+ * Response model that serializes itself field by field, without bean introspection.
+ * Picked up by {@link com.rental.configuration.JsonWritableHttpMessageConverter}, and by
+ * Jackson through {@link JsonWritableSerializer}.
+ */
+@JsonSerialize(using = JsonWritableSerializer.class)
+public interface JsonWritable {
+
+    void writeTo(JsonGenerator generator) throws IOException;
+
+    // writeObjectField would route boxed values back through the ObjectMapper
+    static void writeNumberField(JsonGenerator generator, String name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    static void writeNumberField(JsonGenerator generator, String name, Double value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value);
+        }
+    }
+
+    // ISO-8601 in UTC, e.g. 2022-02-02T12:00:00Z
+    static void writeTimestampField(JsonGenerator generator, String name, Timestamp value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeString(value.toInstant().toString());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Routes Jackson serialization of {@link JsonWritable} models (nested in a map, an error
+ * body, a test's ObjectMapper...) through {@link JsonWritable#writeTo}, so field names and
+ * formats are defined in one place whichever path writes the response.
+ */
+public class JsonWritableSerializer extends StdSerializer<JsonWritable> {
+
+    public JsonWritableSerializer() {
+        super(JsonWritable.class);
+    }
+
+    @Override
+    public void serialize(JsonWritable value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        value.writeTo(generator);
+    }
+}
@@ -3,10 +3,12 @@ package com.rental.model.response;
 public class LoginRes {
     private String email;
     private String token;
+    private String refreshToken;
 
-    public LoginRes(String email, String token) {
+    public LoginRes(String email, String token, String refreshToken) {
         this.email = email;
         this.token = token;
+        this.refreshToken = refreshToken;
     }
 
     public String getEmail() {
@@ -24,4 +26,12 @@ public class LoginRes {
     public void setToken(String token) {
         this.token = token;
     }
-}
\ No newline at end of file
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,68 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.entities.Messages;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+public class MessageRes implements JsonWritable {
+    private final Long id;
+    private final Long rentalId;
+    private final Long userId;
+    private final String message;
+    private final Timestamp createdAt;
+    private final Timestamp updatedAt;
+
+    public MessageRes(Long id, Long rentalId, Long userId, String message, Timestamp createdAt, Timestamp updatedAt) {
+        this.id = id;
+        this.rentalId = rentalId;
+        this.userId = userId;
+        this.message = message;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static MessageRes from(Messages message) {
+        Long rentalId = message.getRental() != null ? message.getRental().getId() : null;
+        Long userId = message.getSender() != null ? message.getSender().getId() : null;
+        return new MessageRes(message.getId(), rentalId, userId, message.getMessage(),
+                message.getCreatedAt(), message.getUpdatedAt());
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        JsonWritable.writeNumberField(generator, "id", id);
+        JsonWritable.writeNumberField(generator, "rental_id", rentalId);
+        JsonWritable.writeNumberField(generator, "user_id", userId);
+        generator.writeStringField("message", message);
+        JsonWritable.writeTimestampField(generator, "created_at", createdAt);
+        JsonWritable.writeTimestampField(generator, "updated_at", updatedAt);
+        generator.writeEndObject();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+public class NearbyRentalRes implements JsonWritable {
+    private final RentalRes rental;
+    private final double distanceKm;
+
+    public NearbyRentalRes(RentalRes rental, double distanceKm) {
+        this.rental = rental;
+        this.distanceKm = distanceKm;
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        rental.writeFields(generator);
+        generator.writeNumberField("distance_km", Math.round(distanceKm * 1000) / 1000.0);
+        generator.writeEndObject();
+    }
+
+    public RentalRes getRental() {
+        return rental;
+    }
+
+    public double getDistanceKm() {
+        return distanceKm;
+    }
+}
@@ -0,0 +1,101 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.stats.GroupedStats;
+import com.rental.stats.PriceStats;
+import com.rental.stats.QuantileSketch;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stats of each requested key of one grouping, plus their merged total when one was asked for.
+ * Without a grouping there are no keys and the total covers every rental.
+ */
+public class PriceStatsRes implements JsonWritable {
+    private final String group;
+    private final Map<String, PriceStats> groups;
+    private final PriceStats total;
+    private final List<Double> percentiles;
+    private final int bins;
+
+    public PriceStatsRes(String group, Map<String, PriceStats> groups, PriceStats total, List<Double> percentiles, int bins) {
+        this.group = group;
+        this.groups = groups;
+        this.total = total;
+        this.percentiles = percentiles;
+        this.bins = bins;
+    }
+
+    public PriceStatsRes(String group, GroupedStats stats, List<Double> percentiles, int bins) {
+        this(group, stats.getGroups(), stats.getTotal(), percentiles, bins);
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("group", group);
+        generator.writeArrayFieldStart("groups");
+        for (Map.Entry<String, PriceStats> entry : groups.entrySet()) {
+            generator.writeStartObject();
+            generator.writeStringField("key", entry.getKey());
+            writeStats(generator, entry.getValue());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        if (total != null) {
+            generator.writeObjectFieldStart("total");
+            writeStats(generator, total);
+            generator.writeEndObject();
+        }
+        generator.writeEndObject();
+    }
+
+    private void writeStats(JsonGenerator generator, PriceStats stats) throws IOException {
+        generator.writeNumberField("count", stats.count());
+        writeAmount(generator, "mean_price", stats.meanPrice());
+        writeSketch(generator, "price", stats.getPrice());
+        writeSketch(generator, "price_per_m2", stats.getPricePerSquareMeter());
+    }
+
+    private void writeSketch(JsonGenerator generator, String name, QuantileSketch sketch) throws IOException {
+        generator.writeObjectFieldStart(name);
+        generator.writeNumberField("count", sketch.count());
+        writeAmount(generator, "min", sketch.min());
+        writeAmount(generator, "max", sketch.max());
+        generator.writeObjectFieldStart("percentiles");
+        for (Double percentile : percentiles) {
+            writeAmount(generator, label(percentile), sketch.quantile(percentile));
+        }
+        generator.writeEndObject();
+        generator.writeArrayFieldStart("histogram");
+        if (sketch.count() > 0) {
+            QuantileSketch.Histogram histogram = sketch.histogram(bins);
+            for (int i = 0; i < histogram.getCounts().length; i++) {
+                generator.writeStartObject();
+                writeAmount(generator, "from", histogram.getEdges()[i]);
+                writeAmount(generator, "to", histogram.getEdges()[i + 1]);
+                generator.writeNumberField("count", histogram.getCounts()[i]);
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private static void writeAmount(JsonGenerator generator, String name, double value) throws IOException {
+        generator.writeFieldName(name);
+        if (Double.isNaN(value)) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(Math.round(value * 100) / 100.0);
+        }
+    }
+
+    // 0.5 -> p50, 0.999 -> p99.9
+    private static String label(double percentile) {
+        return "p" + BigDecimal.valueOf(percentile).movePointRight(2).stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,93 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.entities.Rental;
+
+import java.io.IOException;
+
+public class RentalRes implements JsonWritable {
+    private final Long id;
+    private final String name;
+    private final Double surface;
+    private final Double price;
+    private final String picture;
+    private final String description;
+    private final Double latitude;
+    private final Double longitude;
+    private final Long ownerId;
+
+    public RentalRes(Long id, String name, Double surface, Double price, String picture, String description,
+                     Double latitude, Double longitude, Long ownerId) {
+        this.id = id;
+        this.name = name;
+        this.surface = surface;
+        this.price = price;
+        this.picture = picture;
+        this.description = description;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.ownerId = ownerId;
+    }
+
+    public static RentalRes from(Rental rental) {
+        // owner is a lazy proxy: reading its id does not load it
+        Long ownerId = rental.getOwner() != null ? rental.getOwner().getId() : null;
+        return new RentalRes(rental.getId(), rental.getName(), rental.getSurface(), rental.getPrice(),
+                rental.getPicture(), rental.getDescription(), rental.getLatitude(), rental.getLongitude(), ownerId);
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        writeFields(generator);
+        generator.writeEndObject();
+    }
+
+    void writeFields(JsonGenerator generator) throws IOException {
+        JsonWritable.writeNumberField(generator, "id", id);
+        generator.writeStringField("name", name);
+        JsonWritable.writeNumberField(generator, "surface", surface);
+        JsonWritable.writeNumberField(generator, "price", price);
+        generator.writeStringField("picture", picture);
+        generator.writeStringField("description", description);
+        JsonWritable.writeNumberField(generator, "latitude", latitude);
+        JsonWritable.writeNumberField(generator, "longitude", longitude);
+        JsonWritable.writeNumberField(generator, "owner_id", ownerId);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getSurface() {
+        return surface;
+    }
+
+    public Double getPrice() {
+        return price;
+    }
+
+    public String getPicture() {
+        return picture;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+}
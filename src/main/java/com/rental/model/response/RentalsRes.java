@@ -0,0 +1,29 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.util.List;
+
+public class RentalsRes implements JsonWritable {
+    private final List<? extends JsonWritable> rentals;
+
+    public RentalsRes(List<? extends JsonWritable> rentals) {
+        this.rentals = rentals;
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("rentals");
+        for (JsonWritable rental : rentals) {
+            rental.writeTo(generator);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    public List<? extends JsonWritable> getRentals() {
+        return rentals;
+    }
+}
@@ -0,0 +1,81 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.entities.SavedSearch;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+public class SavedSearchRes implements JsonWritable {
+    private final Long id;
+    private final String name;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Double minSurface;
+    private final Double maxSurface;
+    private final String keywords;
+    private final Timestamp createdAt;
+
+    public SavedSearchRes(Long id, String name, Double minPrice, Double maxPrice, Double minSurface, Double maxSurface,
+                          String keywords, Timestamp createdAt) {
+        this.id = id;
+        this.name = name;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minSurface = minSurface;
+        this.maxSurface = maxSurface;
+        this.keywords = keywords;
+        this.createdAt = createdAt;
+    }
+
+    public static SavedSearchRes from(SavedSearch search) {
+        return new SavedSearchRes(search.getId(), search.getName(), search.getMinPrice(), search.getMaxPrice(),
+                search.getMinSurface(), search.getMaxSurface(), search.getKeywords(), search.getCreatedAt());
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        JsonWritable.writeNumberField(generator, "id", id);
+        generator.writeStringField("name", name);
+        JsonWritable.writeNumberField(generator, "min_price", minPrice);
+        JsonWritable.writeNumberField(generator, "max_price", maxPrice);
+        JsonWritable.writeNumberField(generator, "min_surface", minSurface);
+        JsonWritable.writeNumberField(generator, "max_surface", maxSurface);
+        generator.writeStringField("keywords", keywords);
+        JsonWritable.writeTimestampField(generator, "created_at", createdAt);
+        generator.writeEndObject();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getMinSurface() {
+        return minSurface;
+    }
+
+    public Double getMaxSurface() {
+        return maxSurface;
+    }
+
+    public String getKeywords() {
+        return keywords;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.entities.SearchNotification;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+public class SearchNotificationRes implements JsonWritable {
+    private final Long id;
+    private final Long savedSearchId;
+    private final Long rentalId;
+    private final Timestamp createdAt;
+
+    public SearchNotificationRes(Long id, Long savedSearchId, Long rentalId, Timestamp createdAt) {
+        this.id = id;
+        this.savedSearchId = savedSearchId;
+        this.rentalId = rentalId;
+        this.createdAt = createdAt;
+    }
+
+    public static SearchNotificationRes from(SearchNotification notification) {
+        return new SearchNotificationRes(notification.getId(), notification.getSavedSearchId(),
+                notification.getRentalId(), notification.getCreatedAt());
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        JsonWritable.writeNumberField(generator, "id", id);
+        JsonWritable.writeNumberField(generator, "saved_search_id", savedSearchId);
+        JsonWritable.writeNumberField(generator, "rental_id", rentalId);
+        JsonWritable.writeTimestampField(generator, "created_at", createdAt);
+        generator.writeEndObject();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getSavedSearchId() {
+        return savedSearchId;
+    }
+
+    public Long getRentalId() {
+        return rentalId;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,59 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.rental.entities.User;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+
+public class UserRes implements JsonWritable {
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final Timestamp createdAt;
+    private final Timestamp updatedAt;
+
+    public UserRes(Long id, String name, String email, Timestamp createdAt, Timestamp updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserRes from(User user) {
+        return new UserRes(user.getId(), user.getName(), user.getEmail(),
+                user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    @Override
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        JsonWritable.writeNumberField(generator, "id", id);
+        generator.writeStringField("name", name);
+        generator.writeStringField("email", email);
+        JsonWritable.writeTimestampField(generator, "created_at", createdAt);
+        JsonWritable.writeTimestampField(generator, "updated_at", updatedAt);
+        generator.writeEndObject();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Timestamp getCreatedAt() {
+        return createdAt;
+    }
+
+    public Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,120 @@
+package com.rental.repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.rental.entities.ConversationSummary;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummary, ConversationSummary.Key> {
+
+    // Inbox pages, newest activity first, keyset paginated on (lastActivityAt, rentalId)
+    @Query("select c from ConversationSummary c where c.userId = :userId "
+            + "order by c.lastActivityAt desc, c.rentalId desc")
+    List<ConversationSummary> findInbox(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select c from ConversationSummary c where c.userId = :userId "
+            + "and (c.lastActivityAt < :before or (c.lastActivityAt = :before and c.rentalId < :beforeRentalId)) "
+            + "order by c.lastActivityAt desc, c.rentalId desc")
+    List<ConversationSummary> findInboxBefore(@Param("userId") Long userId,
+                                              @Param("before") Timestamp before,
+                                              @Param("beforeRentalId") Long beforeRentalId,
+                                              Pageable pageable);
+
+    List<ConversationSummary> findAllByRentalIdIn(Collection<Long> rentalIds);
+
+    /*
+     * Concurrent sends can commit out of message id order, so every write below only moves a
+     * row forward: the last message fields change only for a newer message, read positions
+     * only grow. MySQL applies SET assignments left to right, each seeing the ones before it,
+     * so last_message_id, which the other guards compare against, is always assigned last.
+     */
+
+    // Every participant but the sender gets the message as unread, unless they already read past it
+    @Modifying
+    @Query("update ConversationSummary c set "
+            + "c.unreadCount = c.unreadCount + case when :messageId > c.lastReadMessageId then 1 else 0 end, "
+            + "c.lastSenderId = case when coalesce(c.lastMessageId, 0) < :messageId then :senderId else c.lastSenderId end, "
+            + "c.preview = case when coalesce(c.lastMessageId, 0) < :messageId then :preview else c.preview end, "
+            + "c.lastActivityAt = case when coalesce(c.lastMessageId, 0) < :messageId then :at else c.lastActivityAt end, "
+            + "c.lastMessageId = case when coalesce(c.lastMessageId, 0) < :messageId then :messageId else c.lastMessageId end "
+            + "where c.rentalId = :rentalId and c.userId <> :senderId")
+    int recordForParticipants(@Param("rentalId") Long rentalId,
+                              @Param("senderId") Long senderId,
+                              @Param("messageId") Long messageId,
+                              @Param("preview") String preview,
+                              @Param("at") Timestamp at);
+
+    // The sender has read the thread up to their own message, and everything before it if it is the newest
+    @Modifying
+    @Query(value = "insert into conversation_summaries "
+            + "(user_id, rental_id, last_message_id, last_sender_id, preview, last_activity_at, unread_count, last_read_message_id) "
+            + "values (:senderId, :rentalId, :messageId, :senderId, :preview, :at, 0, :messageId) "
+            + "on duplicate key update "
+            + "unread_count = case when last_message_id < values(last_message_id) then 0 else unread_count end, "
+            + "last_sender_id = case when last_message_id < values(last_message_id) then values(last_sender_id) else last_sender_id end, "
+            + "preview = case when last_message_id < values(last_message_id) then values(preview) else preview end, "
+            + "last_activity_at = case when last_message_id < values(last_message_id) then values(last_activity_at) else last_activity_at end, "
+            + "last_read_message_id = greatest(last_read_message_id, values(last_read_message_id)), "
+            + "last_message_id = greatest(last_message_id, values(last_message_id))",
+            nativeQuery = true)
+    int upsertForSender(@Param("rentalId") Long rentalId,
+                        @Param("senderId") Long senderId,
+                        @Param("messageId") Long messageId,
+                        @Param("preview") String preview,
+                        @Param("at") Timestamp at);
+
+    /*
+     * Opens an empty row for the owner on the first message, before recordForParticipants
+     * fills it in like any other participant's. Inserting it already filled would race with
+     * a concurrent first message: the row of whichever commits second would miss its update.
+     */
+    @Modifying
+    @Query(value = "insert into conversation_summaries "
+            + "(user_id, rental_id, last_message_id, last_sender_id, preview, last_activity_at, unread_count, last_read_message_id) "
+            + "values (:ownerId, :rentalId, 0, null, null, :at, 0, 0) "
+            + "on duplicate key update user_id = user_id",
+            nativeQuery = true)
+    int insertForOwnerIfAbsent(@Param("rentalId") Long rentalId,
+                               @Param("ownerId") Long ownerId,
+                               @Param("at") Timestamp at);
+
+    /*
+     * Writes a row recomputed by the repair job unless a message newer than the ones it read
+     * has been recorded since; a read position that moved meanwhile keeps its unread count.
+     */
+    @Modifying
+    @Query(value = "insert into conversation_summaries "
+            + "(user_id, rental_id, last_message_id, last_sender_id, preview, last_activity_at, unread_count, last_read_message_id) "
+            + "values (:userId, :rentalId, :messageId, :senderId, :preview, :at, :unreadCount, :lastReadMessageId) "
+            + "on duplicate key update "
+            + "unread_count = case when last_message_id <= values(last_message_id) "
+            + "and last_read_message_id <= values(last_read_message_id) then values(unread_count) else unread_count end, "
+            + "last_sender_id = case when last_message_id <= values(last_message_id) then values(last_sender_id) else last_sender_id end, "
+            + "preview = case when last_message_id <= values(last_message_id) then values(preview) else preview end, "
+            + "last_activity_at = case when last_message_id <= values(last_message_id) then values(last_activity_at) else last_activity_at end, "
+            + "last_read_message_id = greatest(last_read_message_id, values(last_read_message_id)), "
+            + "last_message_id = greatest(last_message_id, values(last_message_id))",
+            nativeQuery = true)
+    int upsertRepaired(@Param("userId") Long userId,
+                       @Param("rentalId") Long rentalId,
+                       @Param("messageId") Long messageId,
+                       @Param("senderId") Long senderId,
+                       @Param("preview") String preview,
+                       @Param("at") Timestamp at,
+                       @Param("unreadCount") int unreadCount,
+                       @Param("lastReadMessageId") long lastReadMessageId);
+
+    @Modifying
+    @Query("update ConversationSummary c set c.unreadCount = 0, c.lastReadMessageId = c.lastMessageId "
+            + "where c.userId = :userId and c.rentalId = :rentalId")
+    int markRead(@Param("userId") Long userId, @Param("rentalId") Long rentalId);
+}
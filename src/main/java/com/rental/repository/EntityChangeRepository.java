@@ -0,0 +1,33 @@
+package com.rental.repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.rental.entities.EntityChange;
+
+@Repository
+public interface EntityChangeRepository extends JpaRepository<EntityChange, Long> {
+
+    List<EntityChange> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("select coalesce(max(c.id), 0) from EntityChange c where c.createdAt < :before")
+    Long findMaxIdCreatedBefore(@Param("before") Timestamp before);
+
+    // Changes published with an expiry that has not passed yet, up to a watermark
+    @Query("select c from EntityChange c where c.id > :afterId and c.id <= :upToId and c.keepUntil > :now order by c.id")
+    List<EntityChange> findLive(@Param("afterId") Long afterId,
+                                @Param("upToId") Long upToId,
+                                @Param("now") Timestamp now,
+                                Pageable pageable);
+
+    @Modifying
+    @Query("delete from EntityChange c where c.createdAt < :before and (c.keepUntil is null or c.keepUntil < :now)")
+    int deleteExpired(@Param("before") Timestamp before, @Param("now") Timestamp now);
+}
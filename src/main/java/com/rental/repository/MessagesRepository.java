@@ -1,18 +1,40 @@
 package com.rental.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.rental.entities.Messages;
 import com.rental.entities.Rental;
 import com.rental.entities.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface MessagesRepository extends JpaRepository<Messages, Long> {
 
+    int STREAM_FETCH_SIZE = 500;
+
     List<Messages> findAllByRental(Rental rental);
 
     List<Messages> findAllBySenderAndRental(User sender, Rental rental);
+
+    // (rental id, sender id, message id) triples, without loading the messages
+    @Query("select m.rental.id, m.sender.id, m.id from Messages m where m.rental.id in :rentalIds")
+    List<Object[]> findThreadEntries(@Param("rentalIds") Collection<Long> rentalIds);
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select m from Messages m order by m.id")
+    Stream<Messages> streamAll();
 }
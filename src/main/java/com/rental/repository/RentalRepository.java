@@ -1,16 +1,38 @@
 package com.rental.repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.rental.entities.Rental;
 import com.rental.entities.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface RentalRepository extends JpaRepository<Rental, Long> {
 
+  int STREAM_FETCH_SIZE = 500;
+
   List<Rental> findAllByOwner(User owner);
+
+  // (rental id, owner id) pairs, keyset paginated on id
+  @Query("select r.id, r.owner.id from Rental r where r.id > :afterId order by r.id")
+  List<Object[]> findIdsAndOwnersAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+  // Must be consumed inside a transaction and closed by the caller
+  @QueryHints({
+      @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+      @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("select r from Rental r order by r.id")
+  Stream<Rental> streamAll();
 }
 
@@ -0,0 +1,31 @@
+package com.rental.repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import com.rental.entities.SavedSearch;
+import com.rental.entities.User;
+
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    int STREAM_FETCH_SIZE = 500;
+
+    List<SavedSearch> findAllByUser(User user);
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s from SavedSearch s order by s.id")
+    Stream<SavedSearch> streamAll();
+}
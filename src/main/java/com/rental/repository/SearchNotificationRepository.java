@@ -0,0 +1,29 @@
+package com.rental.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.rental.entities.SearchNotification;
+
+@Repository
+public interface SearchNotificationRepository extends JpaRepository<SearchNotification, Long> {
+
+    List<SearchNotification> findAllByUserIdOrderByIdDesc(Long userId, Pageable pageable);
+
+    /**
+     * (saved search id, rental id) of the stored notifications whose search and rental both
+     * appear in the given lists: the pairs of a batch, plus at most their cross combinations.
+     */
+    @Query("select n.savedSearchId, n.rentalId from SearchNotification n "
+            + "where n.savedSearchId in :savedSearchIds and n.rentalId in :rentalIds")
+    List<Object[]> findPairs(@Param("savedSearchIds") Collection<Long> savedSearchIds,
+                             @Param("rentalIds") Collection<Long> rentalIds);
+
+    void deleteAllBySavedSearchId(Long savedSearchId);
+}
@@ -0,0 +1,52 @@
+package com.rental.search;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers "which intervals contain x" without scanning them all. The axis is cut into
+ * logarithmic buckets (four per doubling) and each interval is registered in every bucket
+ * it overlaps, so a lookup only returns the intervals of one bucket. Candidates must
+ * still be checked against their exact bounds.
+ */
+class IntervalIndex {
+
+    private static final int BUCKETS_PER_DOUBLING = 4;
+    private static final int BUCKETS = BUCKETS_PER_DOUBLING * 32;
+
+    private final Map<Integer, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    // null bounds are open
+    void add(Long id, Double min, Double max) {
+        int to = max != null ? bucket(max) : BUCKETS - 1;
+        for (int i = min != null ? bucket(min) : 0; i <= to; i++) {
+            buckets.computeIfAbsent(i, key -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    void remove(Long id, Double min, Double max) {
+        int to = max != null ? bucket(max) : BUCKETS - 1;
+        for (int i = min != null ? bucket(min) : 0; i <= to; i++) {
+            Set<Long> ids = buckets.get(i);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    Collection<Long> candidates(double value) {
+        Set<Long> ids = buckets.get(bucket(value));
+        return ids != null ? ids : Collections.emptySet();
+    }
+
+    private static int bucket(double value) {
+        if (!(value >= 1)) {
+            return 0;
+        }
+        int bucket = 1 + (int) (BUCKETS_PER_DOUBLING * Math.log(value) / Math.log(2));
+        return Math.min(BUCKETS - 1, bucket);
+    }
+}
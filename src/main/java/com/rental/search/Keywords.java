@@ -0,0 +1,33 @@
+package com.rental.search;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+public final class Keywords {
+
+    private static final Pattern SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_LENGTH = 2;
+
+    private Keywords() {
+    }
+
+    /**
+     * Lower-cased words of at least two letters or digits.
+     */
+    public static Set<String> tokenize(String... texts) {
+        Set<String> tokens = new HashSet<>();
+        for (String text : texts) {
+            if (text == null) {
+                continue;
+            }
+            for (String token : SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+                if (token.length() >= MIN_LENGTH) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,115 @@
+package com.rental.search;
+
+import com.rental.model.response.RentalRes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index over the saved search predicates, used to find the searches a rental matches
+ * without evaluating all of them. Each search is filed under a single access path, the
+ * most selective it has: one of its keywords, else its price interval, else its surface
+ * interval, else the match-all list. A rental only gets checked against the searches
+ * filed under its own words, its price and its surface.
+ * Lookups are lock-free, writes are serialized.
+ */
+public class SavedSearchIndex {
+
+    private final Map<Long, SearchCriteria> searches = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> byKeyword = new ConcurrentHashMap<>();
+    private final IntervalIndex byPrice = new IntervalIndex();
+    private final IntervalIndex bySurface = new IntervalIndex();
+    private final Set<Long> unconstrained = ConcurrentHashMap.newKeySet();
+
+    public synchronized void put(SearchCriteria criteria) {
+        remove(criteria.getId());
+        searches.put(criteria.getId(), criteria);
+        String keyword = indexKeyword(criteria);
+        if (keyword != null) {
+            byKeyword.computeIfAbsent(keyword, key -> ConcurrentHashMap.newKeySet()).add(criteria.getId());
+        } else if (hasPriceBounds(criteria)) {
+            byPrice.add(criteria.getId(), criteria.getMinPrice(), criteria.getMaxPrice());
+        } else if (hasSurfaceBounds(criteria)) {
+            bySurface.add(criteria.getId(), criteria.getMinSurface(), criteria.getMaxSurface());
+        } else {
+            unconstrained.add(criteria.getId());
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        SearchCriteria criteria = searches.remove(id);
+        if (criteria == null) {
+            return;
+        }
+        String keyword = indexKeyword(criteria);
+        if (keyword != null) {
+            byKeyword.computeIfPresent(keyword, (key, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        } else if (hasPriceBounds(criteria)) {
+            byPrice.remove(id, criteria.getMinPrice(), criteria.getMaxPrice());
+        } else if (hasSurfaceBounds(criteria)) {
+            bySurface.remove(id, criteria.getMinSurface(), criteria.getMaxSurface());
+        } else {
+            unconstrained.remove(id);
+        }
+    }
+
+    public int size() {
+        return searches.size();
+    }
+
+    public List<SearchCriteria> match(RentalRes rental) {
+        Set<String> tokens = Keywords.tokenize(rental.getName(), rental.getDescription());
+        List<SearchCriteria> matches = new ArrayList<>();
+        for (String token : tokens) {
+            collect(byKeyword.get(token), rental, tokens, matches);
+        }
+        if (rental.getPrice() != null) {
+            collect(byPrice.candidates(rental.getPrice()), rental, tokens, matches);
+        }
+        if (rental.getSurface() != null) {
+            collect(bySurface.candidates(rental.getSurface()), rental, tokens, matches);
+        }
+        collect(unconstrained, rental, tokens, matches);
+        return matches;
+    }
+
+    // Each search sits under one access path, so no candidate is seen twice
+    private void collect(Collection<Long> ids, RentalRes rental, Set<String> tokens, List<SearchCriteria> matches) {
+        if (ids == null) {
+            return;
+        }
+        for (Long id : ids) {
+            SearchCriteria criteria = searches.get(id);
+            if (criteria != null && criteria.matches(rental, tokens)) {
+                matches.add(criteria);
+            }
+        }
+    }
+
+    // Longest keyword as a cheap stand-in for the rarest one
+    private static String indexKeyword(SearchCriteria criteria) {
+        String best = null;
+        for (String keyword : criteria.getKeywords()) {
+            if (best == null || keyword.length() > best.length()
+                    || (keyword.length() == best.length() && keyword.compareTo(best) < 0)) {
+                best = keyword;
+            }
+        }
+        return best;
+    }
+
+    private static boolean hasPriceBounds(SearchCriteria criteria) {
+        return criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+    }
+
+    private static boolean hasSurfaceBounds(SearchCriteria criteria) {
+        return criteria.getMinSurface() != null || criteria.getMaxSurface() != null;
+    }
+}
@@ -0,0 +1,65 @@
+package com.rental.search;
+
+import com.rental.geo.RentalFilter;
+import com.rental.model.response.RentalRes;
+
+import java.util.Set;
+
+/**
+ * Immutable copy of a saved search, as indexed by {@link SavedSearchIndex}.
+ */
+public class SearchCriteria {
+
+    private final Long id;
+    private final Long userId;
+    private final Double minPrice;
+    private final Double maxPrice;
+    private final Double minSurface;
+    private final Double maxSurface;
+    private final Set<String> keywords;
+    private final RentalFilter filter;
+
+    public SearchCriteria(Long id, Long userId, Double minPrice, Double maxPrice,
+                          Double minSurface, Double maxSurface, Set<String> keywords) {
+        this.id = id;
+        this.userId = userId;
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.minSurface = minSurface;
+        this.maxSurface = maxSurface;
+        this.keywords = Set.copyOf(keywords);
+        this.filter = new RentalFilter(minPrice, maxPrice, minSurface, maxSurface);
+    }
+
+    public boolean matches(RentalRes rental, Set<String> rentalTokens) {
+        return filter.test(rental) && rentalTokens.containsAll(keywords);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Double getMinPrice() {
+        return minPrice;
+    }
+
+    public Double getMaxPrice() {
+        return maxPrice;
+    }
+
+    public Double getMinSurface() {
+        return minSurface;
+    }
+
+    public Double getMaxSurface() {
+        return maxSurface;
+    }
+
+    public Set<String> getKeywords() {
+        return keywords;
+    }
+}
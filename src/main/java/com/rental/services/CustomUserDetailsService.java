@@ -1,36 +1,124 @@
 package com.rental.services;
 
+import com.rental.cache.InvalidationBus;
 import com.rental.entities.User;
 import com.rental.repository.UserRepository;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Loads users for authentication. Every authenticated request goes through here, so the
+ * details are cached by email, least recently used first out, and evicted when the user
+ * changes on any node (see {@link UserService#onUserChanged}). Entries also expire after a while,
+ * for changes made outside the application such as role grants in SQL.
+ *
+ * <p>The cache holds immutable snapshots and every call returns a new {@link UserDetails}:
+ * the authentication manager erases the credentials of the instance it is given.
+ */
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final long ttlMs;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    // all guarded by byEmail
+    private final Map<String, CachedUser> byEmail;
+    private final Map<Long, String> emailsById = new HashMap<>();
+    // bumped by every eviction, so a load racing with one does not cache what it read
+    private long evictions;
+
+    public CustomUserDetailsService(UserRepository userRepository, InvalidationBus invalidationBus,
+                                    @Value("${app.cache.userDetailsMaxSize:10000}") int maxCached,
+                                    @Value("${app.cache.userDetailsTtlMs:300000}") long ttlMs) {
         this.userRepository = userRepository;
+        this.ttlMs = ttlMs;
+        this.byEmail = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                if (size() <= maxCached) {
+                    return false;
+                }
+                emailsById.remove(eldest.getValue().id);
+                return true;
+            }
+        };
+        invalidationBus.subscribe(UserService.ENTITY_TYPE, key -> evict(Long.valueOf(key)));
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        long evictionsBefore;
+        synchronized (byEmail) {
+            CachedUser cached = byEmail.get(email);
+            if (cached != null && now - cached.loadedAtMs < ttlMs) {
+                return cached.toUserDetails();
+            }
+            evictionsBefore = evictions;
+        }
         User user = userRepository.findByEmail(email);
-        List<String> roles = new ArrayList<>();
-        roles.add("USER");
-        UserDetails userDetails =
-                org.springframework.security.core.userdetails.User.builder()
-                        .username(user.getEmail())
-                        .password(user.getPassword())
-                        .roles(roles.toArray(new String[0]))
-                        .build();
-        return userDetails;
+        if (user == null) {
+            throw new UsernameNotFoundException(email);
+        }
+        CachedUser loaded = new CachedUser(user.getId(), user.getEmail(), user.getPassword(),
+                user.getRole() != null ? user.getRole() : "USER", now);
+        synchronized (byEmail) {
+            if (evictions == evictionsBefore) {
+                String previousEmail = emailsById.put(loaded.id, email);
+                if (previousEmail != null && !previousEmail.equals(email)) {
+                    byEmail.remove(previousEmail);
+                }
+                byEmail.put(email, loaded);
+            }
+        }
+        return loaded.toUserDetails();
+    }
+
+    public void evict(Long userId) {
+        synchronized (byEmail) {
+            evictions++;
+            String email = emailsById.remove(userId);
+            if (email != null) {
+                byEmail.remove(email);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (byEmail) {
+            return byEmail.size();
+        }
+    }
+
+    private static final class CachedUser {
+        private final Long id;
+        private final String email;
+        private final String passwordHash;
+        private final String role;
+        private final long loadedAtMs;
+
+        private CachedUser(Long id, String email, String passwordHash, String role, long loadedAtMs) {
+            this.id = id;
+            this.email = email;
+            this.passwordHash = passwordHash;
+            this.role = role;
+            this.loadedAtMs = loadedAtMs;
+        }
+
+        private UserDetails toUserDetails() {
+            return org.springframework.security.core.userdetails.User.builder()
+                    .username(email)
+                    .password(passwordHash)
+                    .roles(role)
+                    .build();
+        }
     }
-}
\ No newline at end of file
+}
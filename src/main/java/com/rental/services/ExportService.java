@@ -0,0 +1,103 @@
+package com.rental.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.entities.Messages;
+import com.rental.entities.Rental;
+import com.rental.model.response.MessageRes;
+import com.rental.model.response.RentalRes;
+import com.rental.repository.MessagesRepository;
+import com.rental.repository.RentalRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+/**
+ * Writes full table dumps as NDJSON (one JSON object per line).
+ * Rows are read through a JDBC cursor and detached once written, so memory
+ * stays flat whatever the table size.
+ */
+@Service
+public class ExportService {
+
+    private final RentalRepository rentalRepository;
+    private final MessagesRepository messagesRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(RentalRepository rentalRepository, MessagesRepository messagesRepository, ObjectMapper objectMapper) {
+        this.rentalRepository = rentalRepository;
+        this.messagesRepository = messagesRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public long exportRentals(OutputStream out) throws IOException {
+        try (Stream<Rental> rentals = rentalRepository.streamAll();
+             JsonGenerator generator = createGenerator(out)) {
+            return write(rentals, generator, RentalRepository.STREAM_FETCH_SIZE,
+                    rental -> RentalRes.from(rental).writeTo(generator));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportMessages(OutputStream out) throws IOException {
+        try (Stream<Messages> messages = messagesRepository.streamAll();
+             JsonGenerator generator = createGenerator(out)) {
+            return write(messages, generator, MessagesRepository.STREAM_FETCH_SIZE,
+                    message -> MessageRes.from(message).writeTo(generator));
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        // the caller owns the response stream (it may still need to finish a gzip trailer)
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // rows are separated by the newline written after each one, not by Jackson's default space
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private <T> long write(Stream<T> rows, JsonGenerator generator, int batchSize, RowWriter<T> writer) {
+        long[] count = {0};
+        rows.forEach(row -> {
+            try {
+                writer.write(row);
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            entityManager.detach(row);
+            if (++count[0] % batchSize == 0) {
+                // also drops the association proxies accumulated by the batch
+                entityManager.clear();
+                flush(generator);
+            }
+        });
+        flush(generator);
+        return count[0];
+    }
+
+    private static void flush(JsonGenerator generator) {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+}
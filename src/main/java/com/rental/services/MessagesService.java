@@ -0,0 +1,164 @@
+package com.rental.services;
+
+import com.rental.entities.ConversationSummary;
+import com.rental.entities.Messages;
+import com.rental.entities.Rental;
+import com.rental.entities.User;
+import com.rental.repository.ConversationSummaryRepository;
+import com.rental.repository.MessagesRepository;
+import com.rental.repository.RentalRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Messages and the inbox built on {@link ConversationSummary}. A conversation is a rental's
+ * message thread; its participants are the rental owner and everyone who wrote in it.
+ */
+@Service
+public class MessagesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessagesService.class);
+
+    private final MessagesRepository messagesRepository;
+    private final RentalRepository rentalRepository;
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int repairBatchSize;
+
+    public MessagesService(MessagesRepository messagesRepository,
+                           RentalRepository rentalRepository,
+                           ConversationSummaryRepository conversationSummaryRepository,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${app.inbox.repairBatchSize:100}") int repairBatchSize) {
+        this.messagesRepository = messagesRepository;
+        this.rentalRepository = rentalRepository;
+        this.conversationSummaryRepository = conversationSummaryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.repairBatchSize = repairBatchSize;
+    }
+
+    /**
+     * Stores the message and updates every participant's summary in the same transaction.
+     */
+    @Transactional
+    public Messages send(User sender, Rental rental, String text) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Messages message = new Messages();
+        message.setSender(sender);
+        message.setRental(rental);
+        message.setMessage(text);
+        message.setCreatedAt(now);
+        message.setUpdatedAt(now);
+        messagesRepository.saveAndFlush(message);
+
+        String preview = ConversationSummary.preview(text);
+        Long ownerId = rental.getOwner().getId();
+        if (!ownerId.equals(sender.getId())) {
+            conversationSummaryRepository.insertForOwnerIfAbsent(rental.getId(), ownerId, now);
+        }
+        conversationSummaryRepository.recordForParticipants(rental.getId(), sender.getId(), message.getId(), preview, now);
+        conversationSummaryRepository.upsertForSender(rental.getId(), sender.getId(), message.getId(), preview, now);
+        return message;
+    }
+
+    /**
+     * One inbox page. Pass the last entry of the previous page as {@code before} to get the next one.
+     */
+    public List<ConversationSummary> inbox(Long userId, Timestamp before, Long beforeRentalId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (before == null) {
+            return conversationSummaryRepository.findInbox(userId, page);
+        }
+        return conversationSummaryRepository.findInboxBefore(userId, before, beforeRentalId, page);
+    }
+
+    @Transactional
+    public boolean markRead(Long userId, Long rentalId) {
+        return conversationSummaryRepository.markRead(userId, rentalId) > 0;
+    }
+
+    /**
+     * Rebuilds every summary from the messages table, a batch of rentals per transaction.
+     * Read positions are kept, unread counts are recomputed from them. Rows are rewritten in
+     * place, each only if no newer message was recorded on it since the batch read the
+     * messages, so sends running meanwhile are never lost.
+     */
+    @Scheduled(cron = "${app.inbox.repairCron:-}")
+    public void repairSummaries() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        long rentals = 0;
+        while (true) {
+            List<Object[]> batch = rentalRepository.findIdsAndOwnersAfter(afterId, PageRequest.of(0, repairBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> repairBatch(batch));
+            afterId = (Long) batch.get(batch.size() - 1)[0];
+            rentals += batch.size();
+        }
+        logger.info("Conversation summaries repaired for {} rentals in {} ms", rentals, System.currentTimeMillis() - start);
+    }
+
+    private void repairBatch(List<Object[]> rentals) {
+        Map<Long, Long> ownerByRental = new HashMap<>();
+        for (Object[] row : rentals) {
+            ownerByRental.put((Long) row[0], (Long) row[1]);
+        }
+        Map<ConversationSummary.Key, Long> lastRead = new HashMap<>();
+        for (ConversationSummary summary : conversationSummaryRepository.findAllByRentalIdIn(ownerByRental.keySet())) {
+            lastRead.put(new ConversationSummary.Key(summary.getUserId(), summary.getRentalId()), summary.getLastReadMessageId());
+        }
+
+        // rental id -> (sender id, message id) in message order
+        Map<Long, List<long[]>> threads = new HashMap<>();
+        for (Object[] row : messagesRepository.findThreadEntries(ownerByRental.keySet())) {
+            threads.computeIfAbsent((Long) row[0], key -> new ArrayList<>()).add(new long[]{(Long) row[1], (Long) row[2]});
+        }
+        Map<Long, Long> lastMessageIds = new HashMap<>();
+        for (Map.Entry<Long, List<long[]>> thread : threads.entrySet()) {
+            thread.getValue().sort((a, b) -> Long.compare(a[1], b[1]));
+            lastMessageIds.put(thread.getKey(), thread.getValue().get(thread.getValue().size() - 1)[1]);
+        }
+        Map<Long, Messages> lastMessages = new HashMap<>();
+        for (Messages message : messagesRepository.findAllById(lastMessageIds.values())) {
+            lastMessages.put(message.getId(), message);
+        }
+
+        for (Map.Entry<Long, List<long[]>> thread : threads.entrySet()) {
+            Long rentalId = thread.getKey();
+            Messages last = lastMessages.get(lastMessageIds.get(rentalId));
+            Set<Long> participants = new LinkedHashSet<>();
+            participants.add(ownerByRental.get(rentalId));
+            for (long[] entry : thread.getValue()) {
+                participants.add(entry[0]);
+            }
+            for (Long userId : participants) {
+                long readUpTo = lastRead.getOrDefault(new ConversationSummary.Key(userId, rentalId), 0L);
+                int unread = 0;
+                for (long[] entry : thread.getValue()) {
+                    if (entry[1] > readUpTo && entry[0] != userId) {
+                        unread++;
+                    }
+                }
+                conversationSummaryRepository.upsertRepaired(userId, rentalId, last.getId(), last.getSender().getId(),
+                        ConversationSummary.preview(last.getMessage()), last.getCreatedAt(), unread, readUpTo);
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.rental.services;
+
+import com.rental.cache.InvalidationBus;
+import com.rental.events.RentalChangedEvent;
+import com.rental.model.response.RentalRes;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Connects rental events to the {@link InvalidationBus}: committed local writes are
+ * broadcast, and rentals changed on other nodes are reloaded and republished as remote
+ * {@link RentalChangedEvent}s so the in-memory views here catch up.
+ */
+@Service
+public class RentalChangeRelay {
+
+    public static final String ENTITY_TYPE = "rental";
+
+    private final InvalidationBus invalidationBus;
+    private final RentalScanService rentalScanService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RentalChangeRelay(InvalidationBus invalidationBus, RentalScanService rentalScanService,
+                             ApplicationEventPublisher eventPublisher) {
+        this.invalidationBus = invalidationBus;
+        this.rentalScanService = rentalScanService;
+        this.eventPublisher = eventPublisher;
+        invalidationBus.subscribe(ENTITY_TYPE, this::reload);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (!event.isRemote()) {
+            invalidationBus.publish(ENTITY_TYPE, event.getRentalId());
+        }
+    }
+
+    private void reload(String key) {
+        Long id = Long.valueOf(key);
+        RentalRes rental = rentalScanService.find(id);
+        if (rental == null) {
+            eventPublisher.publishEvent(new RentalChangedEvent(RentalChangedEvent.Type.DELETED, id, null, true));
+        } else {
+            eventPublisher.publishEvent(new RentalChangedEvent(RentalChangedEvent.Type.UPDATED, id, rental, true));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.rental.services;
+
+import com.rental.entities.Rental;
+import com.rental.model.response.RentalRes;
+import com.rental.repository.RentalRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams every rental as a detached snapshot, for rebuilding in-memory views at startup.
+ */
+@Service
+public class RentalScanService {
+
+    private final RentalRepository rentalRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public RentalScanService(RentalRepository rentalRepository) {
+        this.rentalRepository = rentalRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public long scan(Consumer<RentalRes> consumer) {
+        long count = 0;
+        try (Stream<Rental> rentals = rentalRepository.streamAll()) {
+            for (Rental rental : (Iterable<Rental>) rentals::iterator) {
+                consumer.accept(RentalRes.from(rental));
+                entityManager.detach(rental);
+                if (++count % RentalRepository.STREAM_FETCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    // Current snapshot of one rental, null when it no longer exists
+    @Transactional(readOnly = true)
+    public RentalRes find(Long id) {
+        return rentalRepository.findById(id).map(RentalRes::from).orElse(null);
+    }
+}
@@ -0,0 +1,59 @@
+package com.rental.services;
+
+import com.rental.events.RentalChangedEvent;
+import com.rental.geo.GeoGridIndex;
+import com.rental.geo.RentalFilter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Location search over the in-memory {@link GeoGridIndex}. The index is filled from the
+ * rentals table while the context starts, before the web server accepts requests, and then
+ * follows committed rental writes.
+ */
+@Service
+public class RentalSearchService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalSearchService.class);
+
+    private final GeoGridIndex index;
+    private final RentalScanService rentalScanService;
+
+    public RentalSearchService(RentalScanService rentalScanService,
+                               @Value("${app.geo.cellSizeDegrees:0.1}") double cellSizeDegrees) {
+        this.rentalScanService = rentalScanService;
+        this.index = new GeoGridIndex(cellSizeDegrees);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.currentTimeMillis();
+        rentalScanService.scan(index::put);
+        logger.info("Geo index loaded: {} located rentals in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.getType() == RentalChangedEvent.Type.DELETED) {
+            index.remove(event.getRentalId());
+        } else {
+            index.put(event.getRental());
+        }
+    }
+
+    public List<GeoGridIndex.Hit> near(double latitude, double longitude, double radiusKm, RentalFilter filter, int limit) {
+        return index.near(latitude, longitude, radiusKm, filter, limit);
+    }
+
+    public List<GeoGridIndex.Hit> within(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                         double originLatitude, double originLongitude, RentalFilter filter, int limit) {
+        return index.within(minLatitude, minLongitude, maxLatitude, maxLongitude, originLatitude, originLongitude, filter, limit);
+    }
+}
@@ -0,0 +1,226 @@
+package com.rental.services;
+
+import com.rental.events.RentalChangedEvent;
+import com.rental.geo.Geohash;
+import com.rental.model.response.RentalRes;
+import com.rental.stats.GroupedStats;
+import com.rental.stats.PriceStats;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Market price statistics kept in memory: one {@link PriceStats} overall, per owner and
+ * per region (geohash cell of the rental location). Built from a streaming scan while the
+ * context starts, before the web server accepts requests, then updated on every committed
+ * rental write.
+ */
+@Service
+public class RentalStatsService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(RentalStatsService.class);
+
+    private final RentalScanService rentalScanService;
+    private final double relativeAccuracy;
+    private final int regionPrecision;
+
+    // all guarded by this
+    private Groups groups;
+    // changes seen while a rebuild scans, null otherwise
+    private List<RentalChangedEvent> changedDuringRebuild;
+
+    public RentalStatsService(RentalScanService rentalScanService,
+                              @Value("${app.stats.relativeAccuracy:0.01}") double relativeAccuracy,
+                              @Value("${app.stats.regionPrecision:4}") int regionPrecision) {
+        this.rentalScanService = rentalScanService;
+        this.relativeAccuracy = relativeAccuracy;
+        this.regionPrecision = regionPrecision;
+        this.groups = new Groups();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Scans into fresh groups while the current ones keep serving and following writes.
+     * A write committed during the scan may or may not be in what the scan read, so every
+     * change seen meanwhile is replayed on top of the result before it replaces the groups;
+     * replaying a change the scan already saw is a no-op.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        synchronized (this) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        Groups rebuilt = new Groups();
+        long scanned;
+        try {
+            scanned = rentalScanService.scan(rebuilt::apply);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw ex;
+        }
+        synchronized (this) {
+            for (RentalChangedEvent event : changedDuringRebuild) {
+                rebuilt.apply(event);
+            }
+            logger.info("Price statistics built from {} rentals in {} ms, {} changes replayed",
+                    scanned, System.currentTimeMillis() - start, changedDuringRebuild.size());
+            changedDuringRebuild = null;
+            groups = rebuilt;
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onRentalChanged(RentalChangedEvent event) {
+        groups.apply(event);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(event);
+        }
+    }
+
+    public int getRegionPrecision() {
+        return regionPrecision;
+    }
+
+    // The returned stats are copies, safe to read without holding the lock
+    public synchronized PriceStats overall() {
+        return groups.overall.copy();
+    }
+
+    /**
+     * @param total also merge the owners into one total
+     * @return stats of each owner, in the order asked, empty for owners without priced rentals
+     */
+    public synchronized GroupedStats forOwners(Collection<Long> ownerIds, boolean total) {
+        Map<String, PriceStats> perOwner = new LinkedHashMap<>();
+        PriceStats merged = total ? new PriceStats(relativeAccuracy) : null;
+        for (Long ownerId : ownerIds) {
+            if (perOwner.containsKey(String.valueOf(ownerId))) {
+                continue;
+            }
+            PriceStats stats = groups.byOwner.get(ownerId);
+            perOwner.put(String.valueOf(ownerId), stats != null ? stats.copy() : new PriceStats(relativeAccuracy));
+            if (merged != null && stats != null) {
+                merged.merge(stats);
+            }
+        }
+        return new GroupedStats(perOwner, merged);
+    }
+
+    /**
+     * @param regions geohash prefixes, at most {@link #getRegionPrecision()} characters long;
+     *                a shorter prefix merges every region it contains
+     * @param total   also merge the regions into one total, counting once a region that
+     *                overlapping prefixes both contain
+     * @return stats of each prefix, in the order asked
+     */
+    public synchronized GroupedStats forRegions(Collection<String> regions, boolean total) {
+        Map<String, PriceStats> perPrefix = new LinkedHashMap<>();
+        for (String region : regions) {
+            perPrefix.put(region, new PriceStats(relativeAccuracy));
+        }
+        PriceStats merged = total ? new PriceStats(relativeAccuracy) : null;
+        for (Map.Entry<String, PriceStats> entry : groups.byRegion.entrySet()) {
+            boolean matched = false;
+            for (Map.Entry<String, PriceStats> prefix : perPrefix.entrySet()) {
+                if (entry.getKey().startsWith(prefix.getKey())) {
+                    prefix.getValue().merge(entry.getValue());
+                    matched = true;
+                }
+            }
+            if (matched && merged != null) {
+                merged.merge(entry.getValue());
+            }
+        }
+        return new GroupedStats(perPrefix, merged);
+    }
+
+    private final class Groups {
+        private final PriceStats overall = new PriceStats(relativeAccuracy);
+        private final Map<Long, PriceStats> byOwner = new HashMap<>();
+        private final Map<String, PriceStats> byRegion = new HashMap<>();
+        private final Map<Long, Contribution> contributions = new HashMap<>();
+
+        private void apply(RentalChangedEvent event) {
+            if (event.getType() == RentalChangedEvent.Type.DELETED) {
+                remove(event.getRentalId());
+            } else {
+                apply(event.getRental());
+            }
+        }
+
+        private void apply(RentalRes rental) {
+            remove(rental.getId());
+            if (rental.getPrice() == null || rental.getPrice() < 0) {
+                return;
+            }
+            String region = rental.getLatitude() != null && rental.getLongitude() != null
+                    ? Geohash.encode(rental.getLatitude(), rental.getLongitude(), regionPrecision)
+                    : null;
+            Contribution contribution = new Contribution(rental.getOwnerId(), region, rental.getPrice(), rental.getSurface());
+            contributions.put(rental.getId(), contribution);
+            overall.add(contribution.price, contribution.surface);
+            if (contribution.ownerId != null) {
+                byOwner.computeIfAbsent(contribution.ownerId, key -> new PriceStats(relativeAccuracy))
+                        .add(contribution.price, contribution.surface);
+            }
+            if (contribution.region != null) {
+                byRegion.computeIfAbsent(contribution.region, key -> new PriceStats(relativeAccuracy))
+                        .add(contribution.price, contribution.surface);
+            }
+        }
+
+        private void remove(Long rentalId) {
+            Contribution contribution = contributions.remove(rentalId);
+            if (contribution == null) {
+                return;
+            }
+            overall.remove(contribution.price, contribution.surface);
+            if (contribution.ownerId != null) {
+                removeFrom(byOwner, contribution.ownerId, contribution);
+            }
+            if (contribution.region != null) {
+                removeFrom(byRegion, contribution.region, contribution);
+            }
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, PriceStats> groups, K key, Contribution contribution) {
+        PriceStats stats = groups.get(key);
+        stats.remove(contribution.price, contribution.surface);
+        if (stats.isEmpty()) {
+            groups.remove(key);
+        }
+    }
+
+    // What a rental currently adds to the sketches, so an update or delete can take it back
+    private static final class Contribution {
+        private final Long ownerId;
+        private final String region;
+        private final double price;
+        private final Double surface;
+
+        private Contribution(Long ownerId, String region, double price, Double surface) {
+            this.ownerId = ownerId;
+            this.region = region;
+            this.price = price;
+            this.surface = surface;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.rental.services;
+
+import com.rental.cache.InvalidationBus;
+import com.rental.entities.SavedSearch;
+import com.rental.entities.User;
+import com.rental.events.RentalChangedEvent;
+import com.rental.model.response.RentalRes;
+import com.rental.repository.SavedSearchRepository;
+import com.rental.repository.SearchNotificationRepository;
+import com.rental.search.Keywords;
+import com.rental.search.SavedSearchIndex;
+import com.rental.search.SearchCriteria;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Saved searches and their matching against new or updated rentals. The searches are
+ * mirrored in a {@link SavedSearchIndex}; matches go to {@link SearchNotificationService}.
+ * Each node matches only its own rental writes, so every index must see every search:
+ * searches saved or deleted on other nodes arrive through the {@link InvalidationBus}.
+ * For the same reason the index is loaded while the context starts, before the web server
+ * accepts requests: a rental written before the index was loaded would never be matched.
+ */
+@Service
+public class SavedSearchService implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchService.class);
+
+    public static final String ENTITY_TYPE = "saved-search";
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SearchNotificationRepository searchNotificationRepository;
+    private final SearchNotificationService searchNotificationService;
+    private final InvalidationBus invalidationBus;
+    private final TransactionTemplate transactionTemplate;
+    private final SavedSearchIndex index = new SavedSearchIndex();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public SavedSearchService(SavedSearchRepository savedSearchRepository,
+                              SearchNotificationRepository searchNotificationRepository,
+                              SearchNotificationService searchNotificationService,
+                              InvalidationBus invalidationBus,
+                              TransactionTemplate transactionTemplate) {
+        this.savedSearchRepository = savedSearchRepository;
+        this.searchNotificationRepository = searchNotificationRepository;
+        this.searchNotificationService = searchNotificationService;
+        this.invalidationBus = invalidationBus;
+        this.transactionTemplate = transactionTemplate;
+        invalidationBus.subscribe(ENTITY_TYPE, this::reload);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.currentTimeMillis();
+        // the stream must be consumed inside a transaction
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<SavedSearch> searches = savedSearchRepository.streamAll()) {
+                searches.forEach(search -> {
+                    index.put(toCriteria(search));
+                    entityManager.detach(search);
+                });
+            }
+        });
+        logger.info("Saved search index loaded: {} searches in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<SavedSearch> findAllByUser(User user) {
+        return savedSearchRepository.findAllByUser(user);
+    }
+
+    @Transactional
+    public SavedSearch create(SavedSearch search) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        search.setCreatedAt(now);
+        search.setUpdatedAt(now);
+        SavedSearch saved = savedSearchRepository.save(search);
+        SearchCriteria criteria = toCriteria(saved);
+        afterCommit(() -> index.put(criteria));
+        invalidationBus.publish(ENTITY_TYPE, saved.getId());
+        return saved;
+    }
+
+    /**
+     * @return false when the search does not exist or belongs to someone else
+     */
+    @Transactional
+    public boolean delete(Long id, User user) {
+        SavedSearch search = savedSearchRepository.findById(id).orElse(null);
+        if (search == null || !search.getUser().getId().equals(user.getId())) {
+            return false;
+        }
+        searchNotificationRepository.deleteAllBySavedSearchId(id);
+        savedSearchRepository.delete(search);
+        afterCommit(() -> index.remove(id));
+        invalidationBus.publish(ENTITY_TYPE, id);
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        RentalRes rental = event.getRental();
+        // the node that wrote the rental has already matched it
+        if (rental == null || event.isRemote()) {
+            return;
+        }
+        for (SearchCriteria criteria : index.match(rental)) {
+            // owners are not alerted about their own listings
+            if (!criteria.getUserId().equals(rental.getOwnerId())) {
+                searchNotificationService.enqueue(criteria.getUserId(), criteria.getId(), rental.getId());
+            }
+        }
+    }
+
+    private void reload(String key) {
+        Long id = Long.valueOf(key);
+        SearchCriteria criteria = transactionTemplate.execute(status ->
+                savedSearchRepository.findById(id).map(SavedSearchService::toCriteria).orElse(null));
+        if (criteria == null) {
+            index.remove(id);
+        } else {
+            index.put(criteria);
+        }
+    }
+
+    private static SearchCriteria toCriteria(SavedSearch search) {
+        return new SearchCriteria(search.getId(), search.getUser().getId(),
+                search.getMinPrice(), search.getMaxPrice(), search.getMinSurface(), search.getMaxSurface(),
+                Keywords.tokenize(search.getKeywords()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,133 @@
+package com.rental.services;
+
+import com.rental.entities.SearchNotification;
+import com.rental.repository.SearchNotificationRepository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Queue between saved search matching and notification delivery. Matching only enqueues;
+ * a scheduled job drains the queue and stores the notifications in batches.
+ * A (search, rental) pair is notified once: pairs already stored are skipped, and when
+ * another node stores the same pair first the batch is retried row by row without it.
+ */
+@Service
+public class SearchNotificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchNotificationService.class);
+
+    private final SearchNotificationRepository searchNotificationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<SearchNotification> queue;
+    private final int batchSize;
+    private final AtomicLong dropped = new AtomicLong();
+
+    public SearchNotificationService(SearchNotificationRepository searchNotificationRepository,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${app.search.notificationQueueCapacity:10000}") int queueCapacity,
+                                     @Value("${app.search.notificationBatchSize:200}") int batchSize) {
+        this.searchNotificationRepository = searchNotificationRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+
+    // Never blocks the caller: when the queue is full the notification is dropped and counted
+    public void enqueue(Long userId, Long savedSearchId, Long rentalId) {
+        SearchNotification notification = new SearchNotification();
+        notification.setUserId(userId);
+        notification.setSavedSearchId(savedSearchId);
+        notification.setRentalId(rentalId);
+        notification.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+        if (!queue.offer(notification)) {
+            long total = dropped.incrementAndGet();
+            logger.warn("Search notification queue full, dropped notification for search {} ({} dropped so far)", savedSearchId, total);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.notificationDelayMs:2000}")
+    public void deliver() {
+        List<SearchNotification> batch = new ArrayList<>(batchSize);
+        do {
+            batch.clear();
+            queue.drainTo(batch, batchSize);
+            if (!batch.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save(batch));
+                } catch (DataIntegrityViolationException ex) {
+                    saveOneByOne(batch);
+                } catch (RuntimeException ex) {
+                    logger.error("Could not deliver {} search notifications: {}", batch.size(), ex.getMessage());
+                }
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    public List<SearchNotification> latest(Long userId, int limit) {
+        return searchNotificationRepository.findAllByUserIdOrderByIdDesc(userId, PageRequest.of(0, limit));
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    // A rental update can match a search again: only the first match is notified
+    private void save(List<SearchNotification> batch) {
+        Set<Long> savedSearchIds = new HashSet<>();
+        Set<Long> rentalIds = new HashSet<>();
+        for (SearchNotification notification : batch) {
+            savedSearchIds.add(notification.getSavedSearchId());
+            rentalIds.add(notification.getRentalId());
+        }
+        Set<String> seen = new HashSet<>();
+        for (Object[] pair : searchNotificationRepository.findPairs(savedSearchIds, rentalIds)) {
+            seen.add(pair[0] + ":" + pair[1]);
+        }
+        List<SearchNotification> fresh = new ArrayList<>(batch.size());
+        for (SearchNotification notification : batch) {
+            if (seen.add(notification.getSavedSearchId() + ":" + notification.getRentalId())) {
+                fresh.add(notification);
+            }
+        }
+        // flushed here so a duplicate surfaces as DataIntegrityViolationException
+        searchNotificationRepository.saveAllAndFlush(fresh);
+    }
+
+    // One transaction per row, so a pair stored concurrently elsewhere only skips that row
+    private void saveOneByOne(List<SearchNotification> batch) {
+        int skipped = 0;
+        for (SearchNotification notification : batch) {
+            // the rolled back batch insert may have assigned an id
+            notification.setId(null);
+            try {
+                transactionTemplate.executeWithoutResult(status -> save(List.of(notification)));
+            } catch (DataIntegrityViolationException ex) {
+                skipped++;
+            } catch (RuntimeException ex) {
+                logger.error("Could not deliver search notification for search {}: {}",
+                        notification.getSavedSearchId(), ex.getMessage());
+            }
+        }
+        logger.info("Search notification batch hit a concurrent duplicate, {} of {} rows skipped", skipped, batch.size());
+    }
+}
@@ -1,16 +1,26 @@
 package com.rental.services;
 
+import com.rental.cache.InvalidationBus;
 import com.rental.entities.User;
+import com.rental.events.UserChangedEvent;
 import com.rental.repository.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Service
 public class UserService {
 
+    public static final String ENTITY_TYPE = "user";
+
     private final UserRepository userRepository;
+    private final InvalidationBus invalidationBus;
+    private final CustomUserDetailsService userDetailsService;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, InvalidationBus invalidationBus,
+                       CustomUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.userDetailsService = userDetailsService;
     }
 
     public User registerUser(User user) {
@@ -19,8 +29,22 @@ public class UserService {
         return userRepository.save(user);
     }
 
+    /**
+     * Committed user writes, whichever service made them: evicted from this node's details
+     * cache and broadcast to the others.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userDetailsService.evict(event.getUserId());
+        invalidationBus.publish(ENTITY_TYPE, event.getUserId());
+    }
+
     public boolean existsByEmail(String email) {
         // Vérification si l'email existe déjà dans la base de données
         return userRepository.existsByEmail(email);
     }
+
+    public User findByEmail(String email) {
+        return userRepository.findByEmail(email);
+    }
 }
@@ -0,0 +1,27 @@
+package com.rental.stats;
+
+import java.util.Map;
+
+/**
+ * Stats of each requested group key, read under one lock, with their merged total when asked.
+ */
+public class GroupedStats {
+
+    private final Map<String, PriceStats> groups;
+    private final PriceStats total;
+
+    public GroupedStats(Map<String, PriceStats> groups, PriceStats total) {
+        this.groups = groups;
+        this.total = total;
+    }
+
+    // In the order the keys were requested
+    public Map<String, PriceStats> getGroups() {
+        return groups;
+    }
+
+    // null unless a total was requested
+    public PriceStats getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,75 @@
+package com.rental.stats;
+
+/**
+ * Price and price-per-m² sketches for one group of rentals. Mergeable, so stats for
+ * several groups can be combined at read time. Not thread-safe.
+ */
+public class PriceStats {
+
+    private final QuantileSketch price;
+    private final QuantileSketch pricePerSquareMeter;
+    // exact, whatever the order of adds and removes
+    private long priceSumCents;
+
+    public PriceStats(double relativeAccuracy) {
+        this.price = new QuantileSketch(relativeAccuracy);
+        this.pricePerSquareMeter = new QuantileSketch(relativeAccuracy);
+    }
+
+    private PriceStats(QuantileSketch price, QuantileSketch pricePerSquareMeter, long priceSumCents) {
+        this.price = price;
+        this.pricePerSquareMeter = pricePerSquareMeter;
+        this.priceSumCents = priceSumCents;
+    }
+
+    public void add(double price, Double surface) {
+        this.price.add(price);
+        priceSumCents += toCents(price);
+        if (surface != null && surface > 0) {
+            pricePerSquareMeter.add(price / surface);
+        }
+    }
+
+    // Must mirror an earlier add with the same arguments
+    public void remove(double price, Double surface) {
+        this.price.remove(price);
+        priceSumCents -= toCents(price);
+        if (surface != null && surface > 0) {
+            pricePerSquareMeter.remove(price / surface);
+        }
+    }
+
+    public void merge(PriceStats other) {
+        price.merge(other.price);
+        pricePerSquareMeter.merge(other.pricePerSquareMeter);
+        priceSumCents += other.priceSumCents;
+    }
+
+    public PriceStats copy() {
+        return new PriceStats(price.copy(), pricePerSquareMeter.copy(), priceSumCents);
+    }
+
+    public boolean isEmpty() {
+        return price.count() == 0;
+    }
+
+    public long count() {
+        return price.count();
+    }
+
+    public double meanPrice() {
+        return price.count() > 0 ? priceSumCents / 100.0 / price.count() : Double.NaN;
+    }
+
+    private static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    public QuantileSketch getPrice() {
+        return price;
+    }
+
+    public QuantileSketch getPricePerSquareMeter() {
+        return pricePerSquareMeter;
+    }
+}
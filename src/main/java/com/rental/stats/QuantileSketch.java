@@ -0,0 +1,209 @@
+package com.rental.stats;
+
+/**
+ * Relative-error quantile sketch over non-negative values (DDSketch-style log buckets).
+ * Every value lands in bucket {@code ceil(log_gamma(v))}, so any quantile is returned
+ * within {@code relativeAccuracy} of the true value. Unlike sample-based sketches it
+ * supports removals and merges exactly, which lets it follow updates and deletes.
+ * Not thread-safe.
+ */
+public class QuantileSketch {
+
+    private static final double MIN_INDEXABLE = 1e-9;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+
+    // counts[i] holds bucket (offset + i)
+    private long[] counts = new long[0];
+    private int offset;
+    private long zeroCount;
+    private long count;
+
+    public QuantileSketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException("Relative accuracy must be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(double value) {
+        update(value, 1);
+    }
+
+    // The value must have been added before
+    public void remove(double value) {
+        update(value, -1);
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public void merge(QuantileSketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge sketches with different accuracy");
+        }
+        zeroCount += other.zeroCount;
+        count += other.count;
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] != 0) {
+                int index = other.offset + i;
+                ensureCapacity(index);
+                counts[index - offset] += other.counts[i];
+            }
+        }
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy);
+        copy.counts = counts.clone();
+        copy.offset = offset;
+        copy.zeroCount = zeroCount;
+        copy.count = count;
+        return copy;
+    }
+
+    /**
+     * @param q rank in [0, 1]
+     * @return the approximate q-quantile, or NaN when the sketch is empty
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) {
+            throw new IllegalArgumentException("Quantile must be in [0, 1]: " + q);
+        }
+        if (count <= 0) {
+            return Double.NaN;
+        }
+        double rank = q * (count - 1);
+        long cumulative = zeroCount;
+        if (cumulative > rank) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            cumulative += counts[i];
+            if (cumulative > rank) {
+                return value(offset + i);
+            }
+        }
+        return max();
+    }
+
+    public double min() {
+        if (count <= 0) {
+            return Double.NaN;
+        }
+        if (zeroCount > 0) {
+            return 0;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                return value(offset + i);
+            }
+        }
+        return Double.NaN;
+    }
+
+    public double max() {
+        if (count <= 0) {
+            return Double.NaN;
+        }
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] > 0) {
+                return value(offset + i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Equal-width histogram between {@link #min()} and {@link #max()}, built from the buckets.
+     */
+    public Histogram histogram(int bins) {
+        if (bins < 1) {
+            throw new IllegalArgumentException("At least one bin is required");
+        }
+        long[] binCounts = new long[bins];
+        if (count <= 0) {
+            return new Histogram(new double[]{0, 0}, new long[1]);
+        }
+        double low = min();
+        double high = max();
+        if (high <= low) {
+            return new Histogram(new double[]{low, high}, new long[]{count});
+        }
+        double width = (high - low) / bins;
+        double[] edges = new double[bins + 1];
+        for (int i = 0; i <= bins; i++) {
+            edges[i] = low + i * width;
+        }
+        binCounts[0] += zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                int bin = (int) ((value(offset + i) - low) / width);
+                binCounts[Math.min(bins - 1, Math.max(0, bin))] += counts[i];
+            }
+        }
+        return new Histogram(edges, binCounts);
+    }
+
+    private void update(double value, long delta) {
+        if (Double.isNaN(value) || value < 0) {
+            throw new IllegalArgumentException("Only non-negative values are supported: " + value);
+        }
+        count += delta;
+        if (value < MIN_INDEXABLE) {
+            zeroCount += delta;
+            return;
+        }
+        int index = (int) Math.ceil(Math.log(value) / logGamma);
+        ensureCapacity(index);
+        counts[index - offset] += delta;
+    }
+
+    private void ensureCapacity(int index) {
+        if (counts.length == 0) {
+            counts = new long[16];
+            offset = index - 8;
+        }
+        if (index < offset) {
+            int grow = Math.max(offset - index, counts.length / 2);
+            long[] resized = new long[counts.length + grow];
+            System.arraycopy(counts, 0, resized, grow, counts.length);
+            counts = resized;
+            offset -= grow;
+        } else if (index >= offset + counts.length) {
+            int grow = Math.max(index - offset - counts.length + 1, counts.length / 2);
+            long[] resized = new long[counts.length + grow];
+            System.arraycopy(counts, 0, resized, 0, counts.length);
+            counts = resized;
+        }
+    }
+
+    // Midpoint of bucket (gamma^(i-1), gamma^i], within relativeAccuracy of any value in it
+    private double value(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+
+    public static final class Histogram {
+        private final double[] edges;
+        private final long[] counts;
+
+        Histogram(double[] edges, long[] counts) {
+            this.edges = edges;
+            this.counts = counts;
+        }
+
+        // bins + 1 boundaries
+        public double[] getEdges() {
+            return edges;
+        }
+
+        public long[] getCounts() {
+            return counts;
+        }
+    }
+}
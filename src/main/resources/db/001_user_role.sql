@@ -0,0 +1,4 @@
+-- Schema changes are applied by hand (spring.jpa.hibernate.ddl-auto=none), in file order.
+-- Accounts allowed to use /api/export get role REPORTING, e.g.
+--   UPDATE users SET role = 'REPORTING' WHERE email = 'reports@example.com';
+ALTER TABLE users ADD COLUMN role VARCHAR(32) NULL;
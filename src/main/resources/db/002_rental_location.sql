@@ -0,0 +1,5 @@
+-- Rental coordinates for the geo index (/api/rentals/near and /within); rentals without
+-- coordinates are simply left out of location searches.
+ALTER TABLE rentals
+    ADD COLUMN latitude DOUBLE NULL,
+    ADD COLUMN longitude DOUBLE NULL;
@@ -0,0 +1,31 @@
+-- Saved searches and the notifications they raise (/api/searches). The unique key makes
+-- each (search, rental) pair notified at most once, across nodes.
+CREATE TABLE saved_searches (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(255) NULL,
+    min_price DOUBLE NULL,
+    max_price DOUBLE NULL,
+    min_surface DOUBLE NULL,
+    max_surface DOUBLE NULL,
+    keywords VARCHAR(255) NULL,
+    created_at DATETIME(6) NULL,
+    updated_at DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_saved_search_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+CREATE TABLE saved_searches_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO saved_searches_seq VALUES (1);
+
+CREATE TABLE search_notifications (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    saved_search_id BIGINT NOT NULL,
+    rental_id BIGINT NOT NULL,
+    created_at DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_search_notification_pair UNIQUE (saved_search_id, rental_id),
+    INDEX idx_search_notification_user (user_id, id)
+) ENGINE = InnoDB;
+CREATE TABLE search_notifications_seq (next_val BIGINT) ENGINE = InnoDB;
+INSERT INTO search_notifications_seq VALUES (1);
@@ -0,0 +1,15 @@
+-- Inbox rows, one per participant of a rental's message thread (see ConversationSummary).
+-- Fill it once with the repair job (app.inbox.repairCron) after creating the table.
+-- last_message_id and last_read_message_id are NOT NULL: the guarded updates compare them.
+CREATE TABLE conversation_summaries (
+    user_id BIGINT NOT NULL,
+    rental_id BIGINT NOT NULL,
+    last_message_id BIGINT NOT NULL DEFAULT 0,
+    last_sender_id BIGINT NULL,
+    preview VARCHAR(140) NULL,
+    last_activity_at DATETIME(6) NULL,
+    unread_count INT NOT NULL DEFAULT 0,
+    last_read_message_id BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (rental_id, user_id),
+    INDEX idx_conversation_inbox (user_id, last_activity_at, rental_id)
+) ENGINE = InnoDB;
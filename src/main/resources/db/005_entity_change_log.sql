@@ -0,0 +1,13 @@
+-- Cross-node invalidation log (see InvalidationBus). Rows are removed after
+-- app.cache.retentionMs, or after keep_until when it is later (token revocations).
+CREATE TABLE entity_change_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    entity_type VARCHAR(32) NOT NULL,
+    entity_key VARCHAR(128) NOT NULL,
+    origin_node VARCHAR(64) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    keep_until DATETIME(6) NULL,
+    PRIMARY KEY (id),
+    INDEX idx_entity_change_created (created_at),
+    INDEX idx_entity_change_keep_until (keep_until)
+) ENGINE = InnoDB;
@@ -0,0 +1,150 @@
+package com.rental;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Cold start to first successful request: launches the packaged application against the
+ * embedded database and times it until a registration returns 201. Measures the plain
+ * jar and, when built with {@code -Pfast-startup}, the AOT + CDS layout. Results are
+ * printed and appended to {@code benchmarks/startup-benchmark.csv}, one line per variant
+ * and commit. The file is outside {@code target/} so {@code mvn clean} keeps the history;
+ * CI sets {@code -Dstartup.results} to a path it restores before the run and archives after.
+ * <p>
+ * {@code mvn -Pfast-startup package -DskipTests && mvn test -Pbenchmark -Dtest=StartupBenchmark}
+ */
+@Tag("benchmark")
+class StartupBenchmark {
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 5);
+    private static final Duration TIMEOUT = Duration.ofSeconds(120);
+    private static final Path TARGET = Path.of("target");
+    private static final Path RESULTS = Path.of(System.getProperty("startup.results", "benchmarks/startup-benchmark.csv"));
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    @Test
+    void timeToFirstRequest() throws Exception {
+        List<String> results = new ArrayList<>();
+        Path jar = findJar(TARGET, "-SNAPSHOT.jar");
+        if (jar != null) {
+            results.add(measure("jar", TARGET, List.of("-jar", jar.toAbsolutePath().toString())));
+        }
+        Path fastStartup = TARGET.resolve("fast-startup");
+        Path aotJar = findJar(fastStartup, "-aot.jar");
+        if (aotJar != null && Files.exists(fastStartup.resolve("application.jsa"))) {
+            results.add(measure("aot+cds", fastStartup, List.of(
+                    "-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true",
+                    "-jar", aotJar.getFileName().toString())));
+        }
+        assumeTrue(!results.isEmpty(), "Package the application first");
+        record(results);
+    }
+
+    private String measure(String variant, Path workingDirectory, List<String> launch) throws Exception {
+        long[] millis = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            millis[i] = startOnce(workingDirectory, launch);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%s: first successful request after min %d ms, median %d ms, max %d ms%n",
+                variant, millis[0], millis[RUNS / 2], millis[RUNS - 1]);
+        return variant + "," + millis[0] + "," + millis[RUNS / 2] + "," + millis[RUNS - 1];
+    }
+
+    private long startOnce(Path workingDirectory, List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(launch);
+        command.add("--spring.profiles.active=embedded");
+        command.add("--server.port=" + port);
+        HttpRequest register = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"email\":\"startup@test.com\",\"name\":\"Startup\",\"password\":\"password\"}"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workingDirectory.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                // exitValue() throws while the process runs, so the message is only built on failure
+                assertTrue(process.isAlive(), () -> "Application exited with code " + process.exitValue());
+                try {
+                    if (client.send(register, HttpResponse.BodyHandlers.discarding()).statusCode() == 201) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // keep polling
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("No successful request within " + TIMEOUT);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static void record(List<String> results) throws IOException, InterruptedException {
+        Path csv = RESULTS.toAbsolutePath();
+        Files.createDirectories(csv.getParent());
+        String commit = gitCommit();
+        List<String> lines = new ArrayList<>();
+        if (!Files.exists(csv)) {
+            lines.add("timestamp,commit,variant,min_ms,median_ms,max_ms");
+        }
+        for (String result : results) {
+            lines.add(Instant.now() + "," + commit + "," + result);
+        }
+        Files.write(csv, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        System.out.printf("Startup results appended to %s%n", csv);
+    }
+
+    private static String gitCommit() throws InterruptedException {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 ? output : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    private static Path findJar(Path directory, String suffix) {
+        File[] jars = directory.toFile().listFiles((dir, name) -> name.endsWith(suffix));
+        return jars != null && jars.length > 0 ? jars[0].toPath() : null;
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
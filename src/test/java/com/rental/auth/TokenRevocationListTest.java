@@ -0,0 +1,128 @@
+package com.rental.auth;
+
+import com.rental.cache.InvalidationBus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenRevocationListTest {
+
+    private static final long TICK_MS = 10;
+
+    @TempDir
+    Path directory;
+
+    private Path journal;
+    private TokenRevocationList list;
+
+    @BeforeEach
+    void setUp() {
+        journal = directory.resolve("revoked-tokens.log");
+        list = open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        list.close();
+    }
+
+    private TokenRevocationList open() {
+        InvalidationBus bus = new InvalidationBus(null, null, "test", 1000, 5000, 3600000, 2000);
+        TokenRevocationList opened = new TokenRevocationList(bus, TICK_MS, journal.toString());
+        opened.load();
+        return opened;
+    }
+
+    @Test
+    void revokeReportsWhetherItInserted() {
+        UUID id = UUID.randomUUID();
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        assertTrue(list.revoke(id, expiresAt));
+        assertFalse(list.revoke(id, expiresAt));
+        assertTrue(list.isRevoked(id));
+        assertFalse(list.isRevoked(UUID.randomUUID()));
+        assertFalse(list.isRevoked(null));
+    }
+
+    @Test
+    void alreadyExpiredIdsAreNotKept() {
+        UUID id = UUID.randomUUID();
+        assertFalse(list.revoke(id, System.currentTimeMillis() - 1));
+        assertFalse(list.isRevoked(id));
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    void tickDropsEntriesOnceTheyExpire() throws InterruptedException {
+        UUID shortLived = UUID.randomUUID();
+        UUID longLived = UUID.randomUUID();
+        list.revoke(shortLived, System.currentTimeMillis() + 3 * TICK_MS);
+        list.revoke(longLived, System.currentTimeMillis() + 60_000);
+        list.tick();
+        assertTrue(list.isRevoked(shortLived));
+
+        Thread.sleep(6 * TICK_MS);
+        list.tick();
+        assertFalse(list.isRevoked(shortLived));
+        assertTrue(list.isRevoked(longLived));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    void entriesExpiringAfterAFullTurnSurviveTheirSlot() throws InterruptedException {
+        // 256 slots of 10 ms: the wheel turns every 2.56 s, well before this entry expires
+        UUID id = UUID.randomUUID();
+        list.revoke(id, System.currentTimeMillis() + 10_000);
+        for (int i = 0; i < 3; i++) {
+            Thread.sleep(TICK_MS * 100);
+            list.tick();
+        }
+        assertTrue(list.isRevoked(id));
+    }
+
+    @Test
+    void revocationsSurviveARestart() {
+        UUID id = UUID.randomUUID();
+        long expiresAt = System.currentTimeMillis() + 60_000;
+        list.revoke(id, expiresAt);
+        list.close();
+
+        list = open();
+        assertTrue(list.isRevoked(id));
+        // already known, a replay does not count as a new revocation
+        assertFalse(list.revoke(id, expiresAt));
+    }
+
+    @Test
+    void loadSkipsExpiredAndMalformedLinesAndCompacts() throws IOException {
+        list.close();
+        UUID live = UUID.randomUUID();
+        UUID expired = UUID.randomUUID();
+        long now = System.currentTimeMillis();
+        Files.write(journal, List.of(
+                live + " " + (now + 60_000),
+                expired + " " + (now - 1),
+                "not-a-uuid 123",
+                "garbage",
+                live + " " + (now + 60_000)), StandardCharsets.UTF_8);
+
+        list = open();
+        assertTrue(list.isRevoked(live));
+        assertFalse(list.isRevoked(expired));
+        assertEquals(1, list.size());
+        assertEquals(List.of(live + " " + (now + 60_000)), Files.readAllLines(journal, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package com.rental.auth;
+
+import com.rental.cache.InvalidationBus;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private JwtTokenProvider jwtTokenProvider;
+    private TokenRevocationList tokenRevocationList;
+    private TokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", "ZW1iZWRkZWQtcHJvZmlsZS1vbmx5LWp3dC1zZWNyZXQta2V5LTAxMjM0NTY3ODk=");
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", 60_000);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtRefreshExpirationMs", 600_000L);
+        InvalidationBus bus = new InvalidationBus(null, null, "test", 1000, 5000, 3600000, 2000);
+        tokenRevocationList = new TokenRevocationList(bus, 60_000, directory.resolve("revoked.log").toString());
+        tokenRevocationList.load();
+        tokenService = new TokenService(jwtTokenProvider, tokenRevocationList);
+    }
+
+    @AfterEach
+    void tearDown() {
+        tokenRevocationList.close();
+    }
+
+    @Test
+    void refreshRotatesAndKeepsTheEmail() {
+        TokenPair login = tokenService.login("user@test.com");
+        TokenPair refreshed = tokenService.refresh(login.getRefreshToken());
+        assertEquals("user@test.com", refreshed.getEmail());
+        assertNotNull(jwtTokenProvider.parseClaims(refreshed.getAccessToken(), JwtTokenProvider.ACCESS));
+        // a second use of the same refresh token ends the session
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(login.getRefreshToken()));
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(refreshed.getRefreshToken()));
+    }
+
+    @Test
+    void concurrentRefreshesOfOneTokenLetOnlyOneThrough() throws Exception {
+        TokenPair login = tokenService.login("user@test.com");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<TokenPair>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Callable<TokenPair> refresh = () -> {
+                    start.await();
+                    try {
+                        return tokenService.refresh(login.getRefreshToken());
+                    } catch (BadCredentialsException ex) {
+                        return null;
+                    }
+                };
+                results.add(executor.submit(refresh));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<TokenPair> result : results) {
+                if (result.get() != null) {
+                    succeeded++;
+                }
+            }
+            assertEquals(1, succeeded);
+        } finally {
+            executor.shutdownNow();
+        }
+        // the reuse revoked the family, so not even the winner's new pair is usable
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(
+                jwtTokenProvider.generateTokens("user@test.com",
+                        JwtTokenProvider.getFamilyId(jwtTokenProvider.parseClaims(login.getRefreshToken()))).getRefreshToken()));
+    }
+
+    @Test
+    void accessTokensAreNotRefreshTokens() {
+        TokenPair login = tokenService.login("user@test.com");
+        assertThrows(BadCredentialsException.class, () -> tokenService.refresh(login.getAccessToken()));
+        assertNull(jwtTokenProvider.parseClaims(login.getAccessToken(), JwtTokenProvider.REFRESH));
+    }
+
+    @Test
+    void malformedTokensAreRejectedWithoutThrowing() {
+        assertNull(jwtTokenProvider.parseClaims("not.a.token"));
+        assertNull(jwtTokenProvider.parseClaims(""));
+    }
+
+    @Test
+    void tokensSignedWithAnotherKeyAreRejectedWithoutThrowing() {
+        JwtTokenProvider otherProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(otherProvider, "jwtSecret", "YW5vdGhlci1wcm9maWxlLWp3dC1zZWNyZXQta2V5LTAxMjM0NTY3ODktYWJjZGVm");
+        ReflectionTestUtils.setField(otherProvider, "jwtExpirationMs", 60_000);
+        String forged = otherProvider.generateToken("user@test.com");
+        assertNotNull(otherProvider.parseClaims(forged));
+        assertNull(jwtTokenProvider.parseClaims(forged));
+    }
+}
@@ -0,0 +1,115 @@
+package com.rental.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    // Keeps every slot busy and completes one request per sample, as under sustained load
+    private static void saturate(AdaptiveLimit limit, long latencyNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            while (limit.tryAcquire()) {
+                // fill the free slots
+            }
+            limit.release(latencyNanos, false);
+        }
+    }
+
+    @Test
+    void admitsUpToTheLimitWithoutWaiting() {
+        AdaptiveLimit limit = new AdaptiveLimit(3, 1, 10, 2);
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(3, limit.getInFlight());
+
+        limit.release(MS, false);
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void growsUpToTheCeilingWhileLatencyHolds() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 5, 40, 2);
+        saturate(limit, MS, 20);
+        int grown = limit.getLimit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        saturate(limit, MS, 500);
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void shrinksToTheFloorWhenRequestsQueue() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 5, 40, 2);
+        saturate(limit, MS, 500);
+        assertEquals(40, limit.getLimit());
+
+        // ten times slower: requests wait behind a saturated resource
+        saturate(limit, 10 * MS, 20);
+        int shrunk = limit.getLimit();
+        assertTrue(shrunk < 40, "limit " + shrunk);
+
+        saturate(limit, 10 * MS, 200);
+        assertEquals(5, limit.getLimit());
+        assertEquals(10.0, limit.getRecentLatencyMs(), 0.5);
+    }
+
+    @Test
+    void recoversOnceLatencyComesBack() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 5, 40, 2);
+        saturate(limit, MS, 50);
+        saturate(limit, 10 * MS, 200);
+        assertEquals(5, limit.getLimit());
+
+        saturate(limit, MS, 500);
+        assertEquals(40, limit.getLimit());
+    }
+
+    @Test
+    void failuresBackOffDownToTheFloor() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 5, 40, 2);
+        assertTrue(limit.tryAcquire());
+        limit.release(MS, true);
+        assertEquals(18, limit.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(MS, true);
+        }
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void lightTrafficDoesNotRaiseTheLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 5, 40, 2);
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(MS, false);
+        }
+        assertEquals(10, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void equalBoundsGiveAFixedLimit() {
+        AdaptiveLimit limit = new AdaptiveLimit(100, 4, 4, 2);
+        assertEquals(4, limit.getLimit());
+        saturate(limit, MS, 100);
+        saturate(limit, 100 * MS, 100);
+        limit.release(MS, true);
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(1, 0, 10, 2));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveLimit(1, 5, 4, 2));
+    }
+}
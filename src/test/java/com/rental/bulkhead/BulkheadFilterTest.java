@@ -0,0 +1,151 @@
+package com.rental.bulkhead;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BulkheadFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FilterChain chain = mock(FilterChain.class);
+
+    private static MockHttpServletRequest request(String contextPath, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", contextPath + path);
+        request.setContextPath(contextPath);
+        return request;
+    }
+
+    @Test
+    void aFullGroupAnswers503WithoutCallingTheChain() throws Exception {
+        BulkheadRegistry registry = new BulkheadRegistry(BulkheadRegistryTest.properties("rentals=/api/rentals:1:1"));
+        Bulkhead rentals = registry.forPath("/api/rentals");
+        // the only slot is taken by a request still in progress
+        assertTrue(rentals.tryAcquire());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        new BulkheadFilter(registry, objectMapper).doFilter(request("", "/api/rentals/12"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("application/json", response.getContentType());
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertTrue(body.get("message").asText().contains("rentals"));
+        verifyNoInteractions(chain);
+        assertEquals(1, rentals.getRejected());
+        assertEquals(1, rentals.getLimit().getInFlight());
+    }
+
+    @Test
+    void theSlotIsFreedOnceTheRequestCompletes() throws Exception {
+        BulkheadRegistry registry = new BulkheadRegistry(BulkheadRegistryTest.properties("rentals=/api/rentals:1:1"));
+        Bulkhead rentals = registry.forPath("/api/rentals");
+        BulkheadFilter filter = new BulkheadFilter(registry, objectMapper);
+
+        filter.doFilter(request("", "/api/rentals"), new MockHttpServletResponse(), chain);
+        filter.doFilter(request("", "/api/rentals"), new MockHttpServletResponse(), chain);
+
+        assertEquals(2, rentals.getAccepted());
+        assertEquals(0, rentals.getRejected());
+        assertEquals(0, rentals.getLimit().getInFlight());
+    }
+
+    @Test
+    void successfulRequestsReleaseAsSucceeded() throws Exception {
+        Bulkhead bulkhead = filterThrough(200);
+        verify(bulkhead).release(anyLong(), eq(false));
+    }
+
+    @Test
+    void serverErrorsReleaseAsFailed() throws Exception {
+        Bulkhead bulkhead = filterThrough(HttpServletResponse.SC_BAD_GATEWAY);
+        verify(bulkhead).release(anyLong(), eq(true));
+    }
+
+    @Test
+    void clientErrorsAreNotFailures() throws Exception {
+        Bulkhead bulkhead = filterThrough(404);
+        verify(bulkhead).release(anyLong(), eq(false));
+    }
+
+    @Test
+    void exceptionsReleaseAsFailedAndPropagate() throws Exception {
+        Bulkhead bulkhead = mockBulkhead();
+        BulkheadRegistry registry = mock(BulkheadRegistry.class);
+        when(registry.forPath("/api/rentals")).thenReturn(bulkhead);
+        doThrow(new ServletException("handler failed")).when(chain).doFilter(any(), any());
+
+        assertThrows(ServletException.class, () -> new BulkheadFilter(registry, objectMapper)
+                .doFilter(request("", "/api/rentals"), new MockHttpServletResponse(), chain));
+        verify(bulkhead).release(anyLong(), eq(true));
+    }
+
+    @Test
+    void unmatchedPathsPassThrough() throws Exception {
+        BulkheadRegistry registry = mock(BulkheadRegistry.class);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockHttpServletRequest request = request("", "/api/bulkheads");
+
+        new BulkheadFilter(registry, objectMapper).doFilter(request, response, chain);
+
+        verify(registry).forPath("/api/bulkheads");
+        verify(chain).doFilter(request, response);
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void groupsAreMatchedWithoutTheContextPath() throws Exception {
+        Bulkhead bulkhead = mockBulkhead();
+        BulkheadRegistry registry = mock(BulkheadRegistry.class);
+        when(registry.forPath("/api/rentals")).thenReturn(bulkhead);
+
+        new BulkheadFilter(registry, objectMapper).doFilter(request("/app", "/api/rentals"), new MockHttpServletResponse(), chain);
+
+        verify(bulkhead).tryAcquire();
+        verify(bulkhead, never()).release(anyLong(), eq(true));
+    }
+
+    // A request admitted into a mocked bulkhead, whose handler answers with the given status
+    private Bulkhead filterThrough(int status) throws IOException, ServletException {
+        Bulkhead bulkhead = mockBulkhead();
+        BulkheadRegistry registry = mock(BulkheadRegistry.class);
+        when(registry.forPath("/api/rentals")).thenReturn(bulkhead);
+        doAnswer(invocation -> {
+            invocation.<HttpServletResponse>getArgument(1).setStatus(status);
+            return null;
+        }).when(chain).doFilter(any(), any());
+
+        new BulkheadFilter(registry, objectMapper).doFilter(request("", "/api/rentals"), new MockHttpServletResponse(), chain);
+        return bulkhead;
+    }
+
+    private static Bulkhead mockBulkhead() {
+        Bulkhead bulkhead = mock(Bulkhead.class);
+        when(bulkhead.tryAcquire()).thenReturn(true);
+        when(bulkhead.getName()).thenReturn("rentals");
+        return bulkhead;
+    }
+}
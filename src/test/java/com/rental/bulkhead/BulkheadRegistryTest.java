@@ -0,0 +1,71 @@
+package com.rental.bulkhead;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkheadRegistryTest {
+
+    static BulkheadProperties properties(String... groups) {
+        BulkheadProperties properties = new BulkheadProperties();
+        for (String group : groups) {
+            // "name=/path,/path:min:max"
+            String[] parts = group.split("[=:]");
+            BulkheadProperties.Group config = new BulkheadProperties.Group();
+            config.setPaths(List.of(parts[1].split(",")));
+            config.setMinLimit(Integer.parseInt(parts[2]));
+            config.setMaxLimit(Integer.parseInt(parts[3]));
+            config.setInitialLimit(Integer.parseInt(parts[2]));
+            properties.getGroups().put(parts[0], config);
+        }
+        return properties;
+    }
+
+    private final BulkheadRegistry registry = new BulkheadRegistry(properties(
+            "auth=/api/auth:2:32",
+            "rentals=/api/rentals,/api/searches:4:150",
+            "featured=/api/rentals/featured:1:1"));
+
+    @Test
+    void matchesWholePathSegmentsOnly() {
+        assertEquals("rentals", registry.forPath("/api/rentals").getName());
+        assertEquals("rentals", registry.forPath("/api/rentals/12").getName());
+        assertNull(registry.forPath("/api/rentalsX"));
+        assertNull(registry.forPath("/api/rentals-export"));
+        assertNull(registry.forPath("/api/rental"));
+    }
+
+    @Test
+    void theLongestPrefixWins() {
+        assertEquals("featured", registry.forPath("/api/rentals/featured").getName());
+        assertEquals("featured", registry.forPath("/api/rentals/featured/3").getName());
+        assertEquals("rentals", registry.forPath("/api/rentals/featuredX").getName());
+    }
+
+    @Test
+    void aGroupCanSpanSeveralPrefixes() {
+        Bulkhead rentals = registry.forPath("/api/rentals/1");
+        assertEquals(rentals, registry.forPath("/api/searches"));
+        assertEquals(rentals, registry.forPath("/api/searches/notifications"));
+        assertEquals(List.of("/api/rentals", "/api/searches"), rentals.getPathPrefixes());
+    }
+
+    @Test
+    void unmatchedPathsBelongToNoGroup() {
+        assertNull(registry.forPath("/"));
+        assertNull(registry.forPath("/api/bulkheads"));
+        assertNull(registry.forPath("/api"));
+    }
+
+    @Test
+    void groupsAreBuiltFromTheirProperties() {
+        List<Bulkhead> bulkheads = registry.getBulkheads();
+        assertEquals(List.of("auth", "rentals", "featured"), bulkheads.stream().map(Bulkhead::getName).toList());
+        assertEquals(2, bulkheads.get(0).getLimit().getLimit());
+        assertEquals(4, bulkheads.get(1).getLimit().getLimit());
+        assertEquals(1, bulkheads.get(2).getLimit().getLimit());
+    }
+}
@@ -0,0 +1,103 @@
+package com.rental.cache;
+
+import com.rental.entities.EntityChange;
+import com.rental.repository.EntityChangeRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flush and poll keep their pace while a long job holds the only thread of the shared
+ * scheduler, as the inbox repair would.
+ */
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.task.scheduling.pool.size=1", "app.cache.nodeId=self",
+        "app.cache.flushMs=100", "app.cache.pollMs=500", "app.cache.graceMs=5000"})
+class InvalidationBusSchedulingTest {
+
+    private static final String TYPE = "scheduling-test";
+    // flushMs + pollMs with room for a slow machine, well under the blocking job
+    private static final long DEADLINE_MS = 3_000;
+    private static final long BLOCKING_MS = 30_000;
+
+    private static final CountDownLatch slowJobRunning = new CountDownLatch(1);
+
+    @TestConfiguration
+    static class SlowJobConfig {
+        @Bean
+        SlowJob slowJob() {
+            return new SlowJob();
+        }
+    }
+
+    static class SlowJob {
+        @Scheduled(fixedDelay = 10)
+        public void run() throws InterruptedException {
+            slowJobRunning.countDown();
+            Thread.sleep(BLOCKING_MS);
+        }
+    }
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+    @Autowired
+    private EntityChangeRepository entityChangeRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void aLongScheduledJobDelaysNeitherFlushNorPoll() throws InterruptedException {
+        assertTrue(slowJobRunning.await(10, TimeUnit.SECONDS));
+        String local = "local-" + System.nanoTime();
+        String remote = "remote-" + System.nanoTime();
+        CountDownLatch dispatched = new CountDownLatch(1);
+        String[] dispatchThread = new String[1];
+        invalidationBus.subscribe(TYPE, key -> {
+            if (key.equals(remote)) {
+                dispatchThread[0] = Thread.currentThread().getName();
+                dispatched.countDown();
+            }
+        });
+
+        invalidationBus.publish(TYPE, local);
+        assertTrue(within(DEADLINE_MS, () -> entityChangeRepository.findAll().stream()
+                .anyMatch(row -> TYPE.equals(row.getEntityType()) && local.equals(row.getEntityKey()))),
+                "the change was not flushed");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            EntityChange row = new EntityChange();
+            row.setEntityType(TYPE);
+            row.setEntityKey(remote);
+            row.setOriginNode("other");
+            row.setCreatedAt(new Timestamp(System.currentTimeMillis()));
+            entityChangeRepository.save(row);
+        });
+        assertTrue(dispatched.await(DEADLINE_MS, TimeUnit.MILLISECONDS), "the change was not polled");
+        assertTrue(dispatchThread[0].startsWith("invalidation-bus-"), dispatchThread[0]);
+    }
+
+    private static boolean within(long ms, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + ms;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(20);
+        }
+        return condition.getAsBoolean();
+    }
+}
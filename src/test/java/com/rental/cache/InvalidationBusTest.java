@@ -0,0 +1,242 @@
+package com.rental.cache;
+
+import com.rental.entities.EntityChange;
+import com.rental.repository.EntityChangeRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InvalidationBusTest {
+
+    private static final long GRACE_MS = 5000;
+    private static final int BATCH = 3;
+
+    private EntityChangeRepository repository;
+    // what the entity_change_log table holds, in commit order
+    private final List<EntityChange> log = new ArrayList<>();
+    private final List<List<EntityChange>> saved = new ArrayList<>();
+    private final List<String> dispatched = new ArrayList<>();
+    private boolean failWrites;
+    private InvalidationBus bus;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(EntityChangeRepository.class);
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return log.stream()
+                    .filter(row -> row.getId() > afterId)
+                    .sorted(Comparator.comparing(EntityChange::getId))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        when(repository.findMaxIdCreatedBefore(any(Timestamp.class))).thenAnswer(invocation -> {
+            Timestamp before = invocation.getArgument(0);
+            return log.stream()
+                    .filter(row -> row.getCreatedAt().before(before))
+                    .mapToLong(EntityChange::getId)
+                    .max().orElse(0);
+        });
+        when(repository.findLive(anyLong(), anyLong(), any(Timestamp.class), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            long upToId = invocation.getArgument(1);
+            Timestamp now = invocation.getArgument(2);
+            Pageable page = invocation.getArgument(3);
+            return log.stream()
+                    .filter(row -> row.getId() > afterId && row.getId() <= upToId)
+                    .filter(row -> row.getKeepUntil() != null && row.getKeepUntil().after(now))
+                    .sorted(Comparator.comparing(EntityChange::getId))
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        when(repository.saveAll(any(Iterable.class))).thenAnswer(invocation -> {
+            if (failWrites) {
+                throw new IllegalStateException("database unavailable");
+            }
+            List<EntityChange> rows = new ArrayList<>();
+            invocation.<Iterable<EntityChange>>getArgument(0).forEach(rows::add);
+            saved.add(rows);
+            return rows;
+        });
+        bus = new InvalidationBus(repository, new DirectTransactionTemplate(), "self", BATCH, GRACE_MS, 3600000, 2000);
+        bus.subscribe("rental", key -> dispatched.add("rental " + key));
+        bus.subscribe("token", key -> dispatched.add("token " + key));
+    }
+
+    private void start() {
+        bus.initWatermark();
+        bus.afterSingletonsInstantiated();
+    }
+
+    private EntityChange row(long id, String type, String key, String origin, long ageMs) {
+        EntityChange row = new EntityChange();
+        row.setId(id);
+        row.setEntityType(type);
+        row.setEntityKey(key);
+        row.setOriginNode(origin);
+        row.setCreatedAt(new Timestamp(System.currentTimeMillis() - ageMs));
+        log.add(row);
+        return row;
+    }
+
+    @Test
+    void dispatchesOtherNodesChangesOnlyAndMovesPastSettledRows() {
+        start();
+        row(1, "rental", "10", "self", 60_000);
+        row(2, "rental", "11", "other", 60_000);
+        row(3, "unknown", "12", "other", 60_000);
+        bus.poll();
+        assertEquals(List.of("rental 11"), dispatched);
+
+        bus.poll();
+        assertEquals(List.of("rental 11"), dispatched);
+        // the full first page is followed by a read after it, and the second poll starts there
+        verify(repository, times(2)).findByIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class));
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void pollsNothingBeforeStartup() {
+        row(1, "rental", "10", "other", 60_000);
+        bus.poll();
+        assertEquals(List.of(), dispatched);
+    }
+
+    @Test
+    void rowsInsideTheGracePeriodAreReadAgainButDispatchedOnce() {
+        start();
+        row(1, "rental", "10", "other", 0);
+        bus.poll();
+        bus.poll();
+        assertEquals(List.of("rental 10"), dispatched);
+        // the watermark stays below the unsettled row
+        verify(repository, times(2)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class));
+    }
+
+    @Test
+    void aLowerIdCommittedLateIsStillDispatched() {
+        start();
+        // id 1 is allocated first but its transaction commits after id 2 was polled
+        row(2, "rental", "11", "other", 0);
+        bus.poll();
+        row(1, "rental", "10", "other", 0);
+        bus.poll();
+        assertEquals(List.of("rental 11", "rental 10"), dispatched);
+    }
+
+    @Test
+    void theWatermarkOnlyMovesPastSettledRows() {
+        start();
+        row(1, "rental", "10", "other", 60_000);
+        row(3, "rental", "12", "other", 0);
+        bus.poll();
+        row(2, "rental", "11", "other", 0);
+        bus.poll();
+        assertEquals(List.of("rental 10", "rental 12", "rental 11"), dispatched);
+        verify(repository).findByIdGreaterThanOrderByIdAsc(eq(1L), any(Pageable.class));
+    }
+
+    @Test
+    void aFullPageOfUnsettledRowsEndsThePoll() {
+        start();
+        for (long id = 1; id <= BATCH + 2; id++) {
+            row(id, "rental", String.valueOf(id), "other", 0);
+        }
+        bus.poll();
+        // the page is not read again and again within one poll
+        verify(repository, times(1)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+        assertEquals(BATCH, dispatched.size());
+    }
+
+    @Test
+    void fullPagesOfSettledRowsAreAllReadInOnePoll() {
+        start();
+        for (long id = 1; id <= 2 * BATCH + 1; id++) {
+            row(id, "rental", String.valueOf(id), "other", 60_000);
+        }
+        bus.poll();
+        assertEquals(2 * BATCH + 1, dispatched.size());
+        verify(repository, times(3)).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void startupReplaysLiveChangesAndPollsOnlyNewerOnes() {
+        long now = System.currentTimeMillis();
+        // a revocation published by this node id before a restart counts too
+        row(1, "token", "a " + (now + 60_000), "self", 120_000).setKeepUntil(new Timestamp(now + 60_000));
+        row(2, "token", "b " + (now - 1_000), "other", 120_000).setKeepUntil(new Timestamp(now - 1_000));
+        row(3, "rental", "10", "other", 120_000);
+        row(4, "token", "c " + (now + 60_000), "other", 0).setKeepUntil(new Timestamp(now + 60_000));
+        start();
+        assertEquals(List.of("token a " + (now + 60_000)), dispatched);
+
+        bus.poll();
+        assertEquals(List.of("token a " + (now + 60_000), "token c " + (now + 60_000)), dispatched);
+        verify(repository).findLive(eq(0L), eq(3L), any(Timestamp.class), any(Pageable.class));
+    }
+
+    @Test
+    void repeatedChangesAreCoalescedKeepingTheLatestExpiry() {
+        bus.publish("rental", 10L);
+        bus.publish("rental", 10L);
+        bus.publish("token", "a", 2_000);
+        bus.publish("token", "a", 1_000);
+        bus.flush();
+
+        assertEquals(1, saved.size());
+        assertEquals(2, saved.get(0).size());
+        for (EntityChange row : saved.get(0)) {
+            assertEquals("self", row.getOriginNode());
+            if (row.getEntityType().equals("rental")) {
+                assertNull(row.getKeepUntil());
+            } else {
+                assertEquals(2_000, row.getKeepUntil().getTime());
+            }
+        }
+        assertEquals(4, bus.stats().getPublished());
+        assertEquals(2, bus.stats().getCoalesced());
+        assertEquals(0, bus.stats().getPending());
+    }
+
+    @Test
+    void aFailedWriteIsRetriedWithTheNextFlush() {
+        failWrites = true;
+        bus.publish("rental", 10L);
+        bus.flush();
+        assertEquals(1, bus.stats().getPending());
+
+        failWrites = false;
+        bus.flush();
+        assertEquals(1, saved.size());
+        assertEquals("10", saved.get(0).get(0).getEntityKey());
+        assertEquals(0, bus.stats().getPending());
+    }
+
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.rental.controllers;
+
+import com.rental.auth.JwtTokenProvider;
+import com.rental.auth.TokenRevocationList;
+import com.rental.configuration.SpringSecurityConfig;
+import com.rental.services.CustomUserDetailsService;
+import com.rental.services.ExportService;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ExportController.class)
+@Import(SpringSecurityConfig.class)
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ExportService exportService;
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void regularUserCannotExportMessages() throws Exception {
+        mockMvc.perform(get("/api/export/messages")).andExpect(status().isForbidden());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void regularUserCannotExportRentals() throws Exception {
+        mockMvc.perform(get("/api/export/rentals")).andExpect(status().isForbidden());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    void anonymousUserCannotExport() throws Exception {
+        mockMvc.perform(get("/api/export/messages")).andExpect(status().isForbidden());
+        verifyNoInteractions(exportService);
+    }
+
+    @Test
+    @WithMockUser(roles = SpringSecurityConfig.REPORTING_ROLE)
+    void reportingUserCanExportMessages() throws Exception {
+        mockMvc.perform(get("/api/export/messages")).andExpect(status().isOk());
+        verify(exportService).exportMessages(any());
+    }
+}
@@ -0,0 +1,124 @@
+package com.rental.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.auth.JwtTokenProvider;
+import com.rental.auth.TokenRevocationList;
+import com.rental.configuration.SpringSecurityConfig;
+import com.rental.entities.SavedSearch;
+import com.rental.entities.User;
+import com.rental.services.CustomUserDetailsService;
+import com.rental.services.SavedSearchService;
+import com.rental.services.SearchNotificationService;
+import com.rental.services.UserService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SavedSearchController.class)
+@Import(SpringSecurityConfig.class)
+@WithMockUser(username = "user@test.com")
+class SavedSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private SavedSearchService savedSearchService;
+    @MockBean
+    private SearchNotificationService searchNotificationService;
+    @MockBean
+    private UserService userService;
+    @MockBean
+    private CustomUserDetailsService customUserDetailsService;
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+    @MockBean
+    private TokenRevocationList tokenRevocationList;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("user@test.com");
+        when(userService.findByEmail("user@test.com")).thenReturn(user);
+        when(savedSearchService.create(any(SavedSearch.class))).thenAnswer(invocation -> {
+            SavedSearch search = invocation.getArgument(0);
+            search.setId(42L);
+            search.setCreatedAt(new Timestamp(0));
+            return search;
+        });
+    }
+
+    @Test
+    void aSearchRoundTripsThroughItsResponse() throws Exception {
+        String request = "{\"name\":\"Paris\",\"min_price\":300.0,\"max_price\":900.0,"
+                + "\"min_surface\":20.0,\"max_surface\":60.0,\"keywords\":\"balcony\"}";
+        JsonNode created = create(request);
+        assertEquals(42, created.get("id").asLong());
+        for (String field : List.of("name", "min_price", "max_price", "min_surface", "max_surface", "keywords")) {
+            assertEquals(objectMapper.readTree(request).get(field), created.get(field), field);
+        }
+
+        // what a client read back can be posted again as is
+        JsonNode recreated = create(created.toString());
+        for (String field : List.of("name", "min_price", "max_price", "min_surface", "max_surface", "keywords")) {
+            assertEquals(created.get(field), recreated.get(field), field);
+        }
+    }
+
+    @Test
+    void invertedBoundsAreRejected() throws Exception {
+        mockMvc.perform(post("/api/searches").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Paris\",\"min_price\":900.0,\"max_price\":300.0}"))
+                .andExpect(status().isBadRequest());
+        verify(savedSearchService, never()).create(any(SavedSearch.class));
+    }
+
+    @Test
+    void outOfRangeNotificationLimitsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/searches/notifications").param("limit", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/searches/notifications").param("limit", "101")).andExpect(status().isBadRequest());
+        verifyNoInteractions(searchNotificationService);
+
+        when(searchNotificationService.latest(anyLong(), anyInt())).thenReturn(List.of());
+        mockMvc.perform(get("/api/searches/notifications").param("limit", "100")).andExpect(status().isOk());
+        verify(searchNotificationService).latest(eq(7L), eq(100));
+    }
+
+    private JsonNode create(String body) throws Exception {
+        String response = mockMvc.perform(post("/api/searches").with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
@@ -0,0 +1,82 @@
+package com.rental.geo;
+
+import com.rental.model.response.RentalRes;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Query latency of the geo index with 100k listings spread over metropolitan France.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class GeoGridIndexBenchmark {
+
+    private static final int LISTINGS = 100_000;
+    private static final int QUERIES = 2_000;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void radiusAndBoxQueries() {
+        GeoGridIndex index = new GeoGridIndex(0.1);
+        for (long id = 1; id <= LISTINGS; id++) {
+            index.put(new RentalRes(id, "Rental " + id, 20 + random.nextDouble() * 180, 300 + random.nextDouble() * 2700,
+                    null, null, latitude(), longitude(), 1L));
+        }
+        RentalFilter filter = new RentalFilter(500.0, 2000.0, 30.0, null);
+
+        long[] near = measure(() -> index.near(latitude(), longitude(), 10, filter, 50));
+        long[] box = measure(() -> {
+            double lat = latitude();
+            double lon = longitude();
+            return index.within(lat - 0.1, lon - 0.15, lat + 0.1, lon + 0.15, lat, lon, filter, 50);
+        });
+
+        print("near 10 km", near);
+        print("box 0.2x0.3 deg", box);
+        assertTrue(percentile(near, 0.99) < 10_000_000L);
+        assertTrue(percentile(box, 0.99) < 10_000_000L);
+    }
+
+    private double latitude() {
+        return 42.5 + random.nextDouble() * 8.5;
+    }
+
+    private double longitude() {
+        return -4.5 + random.nextDouble() * 12.5;
+    }
+
+    private static long[] measure(Query query) {
+        for (int i = 0; i < QUERIES; i++) {
+            query.run();
+        }
+        long[] nanos = new long[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            long start = System.nanoTime();
+            query.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(p * sorted.length))];
+    }
+
+    private static void print(String name, long[] nanos) {
+        System.out.printf("%s: p50 %.3f ms, p99 %.3f ms%n", name, percentile(nanos, 0.5) / 1e6, percentile(nanos, 0.99) / 1e6);
+    }
+
+    @FunctionalInterface
+    private interface Query {
+        List<GeoGridIndex.Hit> run();
+    }
+}
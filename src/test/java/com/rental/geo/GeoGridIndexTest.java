@@ -0,0 +1,142 @@
+package com.rental.geo;
+
+import com.rental.model.response.RentalRes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeoGridIndexTest {
+
+    private static final Predicate<RentalRes> ANY = rental -> true;
+
+    private GeoGridIndex index;
+
+    // Enough rentals far away that small queries go through the cells, not the full scan
+    @BeforeEach
+    void setUp() {
+        index = new GeoGridIndex(0.1);
+        for (long id = 1000; id < 1500; id++) {
+            index.put(rental(id, 10 + (id % 50) * 0.2, 20 + (id / 50) * 0.2));
+        }
+    }
+
+    @Test
+    void nearFindsRentalsAcrossCellEdges() {
+        // 48.8 is exactly a cell boundary; the query point sits in the cell below
+        index.put(rental(1L, 48.8, 2.3));
+        index.put(rental(2L, 48.79, 2.29));
+        List<GeoGridIndex.Hit> hits = index.near(48.795, 2.295, 2, ANY, 10);
+        assertEquals(List.of(1L, 2L), ids(hits).stream().sorted().toList());
+    }
+
+    @Test
+    void nearIsOrderedByDistanceAndLimited() {
+        index.put(rental(1L, 48.85, 2.35));
+        index.put(rental(2L, 48.86, 2.35));
+        index.put(rental(3L, 48.88, 2.35));
+        index.put(rental(4L, 49.5, 2.35));
+        List<GeoGridIndex.Hit> hits = index.near(48.85, 2.35, 10, ANY, 2);
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertEquals(0, hits.get(0).getDistanceKm(), 1e-9);
+        assertEquals(1.11, hits.get(1).getDistanceKm(), 0.01);
+    }
+
+    @Test
+    void nearAppliesTheRadiusExactly() {
+        index.put(rental(1L, 48.85, 2.35));
+        // about 4.45 km north
+        index.put(rental(2L, 48.89, 2.35));
+        assertEquals(List.of(1L), ids(index.near(48.85, 2.35, 4.4, ANY, 10)));
+        assertEquals(List.of(1L, 2L), ids(index.near(48.85, 2.35, 4.5, ANY, 10)));
+    }
+
+    @Test
+    void nearWrapsAroundTheAntimeridian() {
+        index.put(rental(1L, 0, 179.95));
+        index.put(rental(2L, 0, -179.95));
+        List<GeoGridIndex.Hit> hits = index.near(0, -179.99, 20, ANY, 10);
+        assertEquals(List.of(2L, 1L), ids(hits));
+        assertEquals(6.67, hits.get(1).getDistanceKm(), 0.01);
+    }
+
+    @Test
+    void longitude180AndMinus180AreTheSamePlace() {
+        index.put(rental(1L, 10, 180));
+        assertEquals(List.of(1L), ids(index.near(10, -180, 1, ANY, 10)));
+    }
+
+    @Test
+    void nearCoversThePole() {
+        index.put(rental(1L, 89.95, 100));
+        index.put(rental(2L, 89.95, -80));
+        assertEquals(2, index.near(89.99, 0, 20, ANY, 10).size());
+    }
+
+    @Test
+    void withinIncludesItsEdges() {
+        index.put(rental(1L, 48.8, 2.2));
+        index.put(rental(2L, 48.9, 2.4));
+        index.put(rental(3L, 48.95, 2.3));
+        List<GeoGridIndex.Hit> hits = index.within(48.8, 2.2, 48.9, 2.4, 48.85, 2.3, ANY, 10);
+        assertEquals(List.of(1L, 2L), ids(hits).stream().sorted().toList());
+    }
+
+    @Test
+    void withinAcrossTheAntimeridian() {
+        index.put(rental(1L, 0, 179.5));
+        index.put(rental(2L, 0, -179.5));
+        index.put(rental(3L, 0, 0));
+        List<GeoGridIndex.Hit> hits = index.within(-1, 179, 1, -179, 0, 180, ANY, 10);
+        assertEquals(List.of(1L, 2L), ids(hits).stream().sorted().toList());
+    }
+
+    @Test
+    void updateMovesTheRentalToItsNewCell() {
+        index.put(rental(1L, 48.85, 2.35));
+        index.put(rental(1L, 43.30, 5.37));
+        assertTrue(index.near(48.85, 2.35, 5, ANY, 10).isEmpty());
+        List<GeoGridIndex.Hit> hits = index.near(43.30, 5.37, 5, ANY, 10);
+        assertEquals(List.of(1L), ids(hits));
+        assertEquals(501, index.size());
+    }
+
+    @Test
+    void updateWithoutCoordinatesAndRemoveDropTheRental() {
+        index.put(rental(1L, 48.85, 2.35));
+        index.put(rental(2L, 48.85, 2.35));
+        index.put(new RentalRes(1L, "Rental 1", 50.0, 900.0, null, null, null, null, 1L));
+        index.remove(2L);
+        index.remove(3L);
+        assertTrue(index.near(48.85, 2.35, 5, ANY, 10).isEmpty());
+        assertEquals(500, index.size());
+    }
+
+    @Test
+    void filterIsApplied() {
+        index.put(new RentalRes(1L, "Cheap", 50.0, 500.0, null, null, 48.85, 2.35, 1L));
+        index.put(new RentalRes(2L, "Dear", 50.0, 2500.0, null, null, 48.85, 2.35, 1L));
+        List<GeoGridIndex.Hit> hits = index.near(48.85, 2.35, 1, new RentalFilter(null, 1000.0, null, null), 10);
+        assertEquals(List.of(1L), ids(hits));
+    }
+
+    @Test
+    void rejectsInvalidCellSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new GeoGridIndex(0));
+        assertThrows(IllegalArgumentException.class, () -> new GeoGridIndex(91));
+    }
+
+    private static RentalRes rental(long id, double latitude, double longitude) {
+        return new RentalRes(id, "Rental " + id, 50.0, 900.0, null, null, latitude, longitude, 1L);
+    }
+
+    private static List<Long> ids(List<GeoGridIndex.Hit> hits) {
+        return hits.stream().map(hit -> hit.getRental().getId()).toList();
+    }
+}
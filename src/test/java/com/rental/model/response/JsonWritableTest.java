@@ -0,0 +1,93 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.configuration.JsonWritableHttpMessageConverter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonWritableTest {
+
+    private static final Timestamp CREATED = Timestamp.from(Instant.parse("2022-02-02T12:00:00Z"));
+    private static final Timestamp UPDATED = Timestamp.from(Instant.parse("2022-08-02T12:00:00.250Z"));
+
+    private final ObjectMapper objectMapper = springObjectMapper();
+
+    @Test
+    void userWireFormat() throws IOException {
+        UserRes user = new UserRes(1L, "Test TEST", "test@test.com", CREATED, UPDATED);
+        assertEquals("{\"id\":1,\"name\":\"Test TEST\",\"email\":\"test@test.com\","
+                        + "\"created_at\":\"2022-02-02T12:00:00Z\",\"updated_at\":\"2022-08-02T12:00:00.250Z\"}",
+                writeTo(user));
+        assertSamePaths(user);
+    }
+
+    @Test
+    void rentalWireFormat() throws IOException {
+        RentalRes rental = new RentalRes(7L, "Dream house", 432.0, 300.0, null, "Lorem", 48.85, 2.35, 1L);
+        assertEquals("{\"id\":7,\"name\":\"Dream house\",\"surface\":432.0,\"price\":300.0,\"picture\":null,"
+                        + "\"description\":\"Lorem\",\"latitude\":48.85,\"longitude\":2.35,\"owner_id\":1}",
+                writeTo(rental));
+        assertSamePaths(rental);
+    }
+
+    @Test
+    void messageWireFormat() throws IOException {
+        MessageRes message = new MessageRes(3L, 7L, 1L, "Hello", CREATED, null);
+        assertEquals("{\"id\":3,\"rental_id\":7,\"user_id\":1,\"message\":\"Hello\","
+                        + "\"created_at\":\"2022-02-02T12:00:00Z\",\"updated_at\":null}",
+                writeTo(message));
+        assertSamePaths(message);
+    }
+
+    @Test
+    void nestedInPlainJacksonValues() throws IOException {
+        MessageRes message = new MessageRes(3L, 7L, 1L, "Hello", CREATED, null);
+        assertEquals("{\"messages\":[" + writeTo(message) + "]}",
+                objectMapper.writeValueAsString(Map.of("messages", List.of(message))));
+    }
+
+    // The message converter, Jackson and writeTo itself must all produce the same document
+    private void assertSamePaths(JsonWritable value) throws IOException {
+        String expected = writeTo(value);
+        assertEquals(expected, objectMapper.writeValueAsString(value));
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        new JsonWritableHttpMessageConverter(objectMapper.getFactory())
+                .write(value, value.getClass(), MediaType.APPLICATION_JSON, output);
+        assertEquals(expected, output.getBodyAsString(StandardCharsets.UTF_8));
+    }
+
+    private String writeTo(JsonWritable value) throws IOException {
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            value.writeTo(generator);
+        }
+        return writer.toString();
+    }
+
+    // configured like the application's, dates included
+    private static ObjectMapper springObjectMapper() {
+        AtomicReference<ObjectMapper> mapper = new AtomicReference<>();
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(JacksonAutoConfiguration.class))
+                .run(context -> mapper.set(context.getBean(ObjectMapper.class)));
+        return mapper.get();
+    }
+}
@@ -0,0 +1,246 @@
+package com.rental.model.response;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rental.entities.Messages;
+import com.rental.entities.Rental;
+import com.rental.entities.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cost of one response built from a managed entity loaded in a fresh persistence context:
+ * Jackson bean serialization of the entity (walking and lazily loading its associations)
+ * versus mapping it to the response model and writing that through {@link JsonWritable}.
+ * Reports bytes allocated, time and SQL statements per response.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        // keep scheduled jobs from issuing statements during the measurement
+        "app.cache.pollMs=3600000", "app.cache.flushMs=3600000", "app.search.notificationDelayMs=3600000"})
+class ResponseAllocationBenchmark {
+
+    private static final int WARMUP = 500;
+    private static final int ITERATIONS = 2_000;
+    private static final int RENTALS = 5;
+    private static final int MESSAGES_PER_RENTAL = 10;
+
+    @Autowired
+    private ObjectMapper applicationObjectMapper;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private ObjectMapper entityMapper;
+    private Statistics statistics;
+    private TransactionTemplate transactionTemplate;
+    private Long ownerId;
+    private Long senderId;
+    private Long rentalId;
+
+    /**
+     * The minimum an application serializing entities needs to terminate: proxy internals
+     * ignored and the back-references of Messages cut, as @JsonIgnoreProperties would.
+     */
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+    private interface ProxyMixin {
+    }
+
+    @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "sender", "rental"})
+    private interface MessagesMixin {
+    }
+
+    @BeforeEach
+    void setUp() {
+        entityMapper = applicationObjectMapper.copy()
+                .addMixIn(User.class, ProxyMixin.class)
+                .addMixIn(Rental.class, ProxyMixin.class)
+                .addMixIn(Messages.class, MessagesMixin.class)
+                .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> populate());
+        transactionTemplate.setReadOnly(true);
+    }
+
+    // An owner with several rentals, and a tenant who wrote to each of them
+    private void populate() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        User owner = user("owner-" + System.nanoTime() + "@test.com", now);
+        User sender = user("sender-" + System.nanoTime() + "@test.com", now);
+        List<Rental> rentals = new ArrayList<>();
+        for (int i = 0; i < RENTALS; i++) {
+            Rental rental = new Rental();
+            rental.setName("Dream house " + i);
+            rental.setSurface(432.0);
+            rental.setPrice(300.0 + i);
+            rental.setPicture("https://example.org/dream-house.png");
+            rental.setDescription("Lorem ipsum dolor sit amet, consectetur adipiscing elit.");
+            rental.setLatitude(48.85);
+            rental.setLongitude(2.35);
+            rental.setOwner(owner);
+            entityManager.persist(rental);
+            rentals.add(rental);
+        }
+        for (Rental rental : rentals) {
+            for (int i = 0; i < MESSAGES_PER_RENTAL; i++) {
+                Messages message = new Messages();
+                message.setMessage("Is it still available? " + i);
+                message.setSender(sender);
+                message.setRental(rental);
+                message.setCreatedAt(now);
+                message.setUpdatedAt(now);
+                entityManager.persist(message);
+            }
+        }
+        ownerId = owner.getId();
+        senderId = sender.getId();
+        rentalId = rentals.get(0).getId();
+    }
+
+    private User user(String email, Timestamp now) {
+        User user = new User();
+        user.setName("Test TEST");
+        user.setEmail(email);
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        entityManager.persist(user);
+        return user;
+    }
+
+    @Test
+    void userResponse() {
+        Result before = measure(() -> write(entityMapper, entityManager.find(User.class, senderId)));
+        Result after = measure(() -> write(UserRes.from(entityManager.find(User.class, senderId))));
+        print("user", before, after);
+
+        JsonNode entity = parse(before.json);
+        JsonNode model = parse(after.json);
+        assertEquals(RENTALS * MESSAGES_PER_RENTAL, entity.get("sentMessages").size());
+        assertEquals(entity.get("email"), model.get("email"));
+        assertEquals(senderId, model.get("id").asLong());
+        assertTrue(after.statements < before.statements);
+        assertTrue(after.bytes < before.bytes);
+    }
+
+    @Test
+    void rentalResponse() {
+        Result before = measure(() -> write(entityMapper, entityManager.find(Rental.class, rentalId)));
+        Result after = measure(() -> write(RentalRes.from(entityManager.find(Rental.class, rentalId))));
+        print("rental", before, after);
+
+        JsonNode entity = parse(before.json);
+        JsonNode model = parse(after.json);
+        assertEquals(MESSAGES_PER_RENTAL, entity.get("messages").size());
+        assertEquals(entity.get("owner").get("id").asLong(), model.get("owner_id").asLong());
+        assertEquals(ownerId, model.get("owner_id").asLong());
+        assertEquals(entity.get("price").asDouble(), model.get("price").asDouble());
+        // the model needs the rental row only, never the owner or the messages
+        assertEquals(1.0, after.statements);
+        assertTrue(after.statements < before.statements);
+        assertTrue(after.bytes < before.bytes);
+    }
+
+    private byte[] write(ObjectMapper mapper, Object entity) {
+        try {
+            return mapper.writeValueAsBytes(entity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] write(JsonWritable model) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try (JsonGenerator generator = applicationObjectMapper.getFactory().createGenerator(out)) {
+            model.writeTo(generator);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Every call starts from an empty persistence context, like a new request would
+    private Result measure(Response response) {
+        return transactionTemplate.execute(status -> {
+            for (int i = 0; i < WARMUP; i++) {
+                entityManager.clear();
+                response.build();
+            }
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long threadId = Thread.currentThread().getId();
+            statistics.clear();
+            long statementsBefore = statistics.getPrepareStatementCount();
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long start = System.nanoTime();
+            byte[] json = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                entityManager.clear();
+                json = response.build();
+            }
+            long nanos = System.nanoTime() - start;
+            long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+            long statements = statistics.getPrepareStatementCount() - statementsBefore;
+            return new Result(bytes / ITERATIONS, nanos / 1_000.0 / ITERATIONS,
+                    (double) statements / ITERATIONS, json);
+        });
+    }
+
+    private JsonNode parse(byte[] json) {
+        try {
+            return applicationObjectMapper.readTree(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void print(String name, Result before, Result after) {
+        System.out.printf("%s response: entity %d B/op, %.1f us/op, %.1f statements/op, %d bytes of JSON%n",
+                name, before.bytes, before.micros, before.statements, before.json.length);
+        System.out.printf("%s response: model  %d B/op, %.1f us/op, %.1f statements/op, %d bytes of JSON%n",
+                name, after.bytes, after.micros, after.statements, after.json.length);
+    }
+
+    @FunctionalInterface
+    private interface Response {
+        byte[] build();
+    }
+
+    private record Result(long bytes, double micros, double statements, byte[] json) {
+    }
+}
@@ -0,0 +1,83 @@
+package com.rental.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntervalIndexTest {
+
+    @Test
+    void everyIntervalContainingAValueIsACandidate() {
+        Random random = new Random(11);
+        IntervalIndex index = new IntervalIndex();
+        double[][] intervals = new double[2_000][];
+        for (int i = 0; i < intervals.length; i++) {
+            double min = Math.exp(random.nextDouble() * 12);
+            double max = min * (1 + random.nextDouble() * 3);
+            intervals[i] = new double[]{min, max};
+            index.add((long) i, min, max);
+        }
+        for (int probe = 0; probe < 2_000; probe++) {
+            double value = Math.exp(random.nextDouble() * 13);
+            for (int i = 0; i < intervals.length; i++) {
+                if (value >= intervals[i][0] && value <= intervals[i][1]) {
+                    assertTrue(index.candidates(value).contains((long) i), value + " in interval " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void boundsAreFoundExactly() {
+        IntervalIndex index = new IntervalIndex();
+        // 1024 and 2048 sit exactly on bucket edges
+        index.add(1L, 1024.0, 2048.0);
+        index.add(2L, 1000.0, 1000.0);
+        assertTrue(index.candidates(1024).contains(1L));
+        assertTrue(index.candidates(2048).contains(1L));
+        assertTrue(index.candidates(Math.nextUp(1024.0)).contains(1L));
+        assertTrue(index.candidates(1000).contains(2L));
+        // far outside: a different bucket, not even a candidate
+        assertFalse(index.candidates(100).contains(1L));
+        assertFalse(index.candidates(10_000).contains(1L));
+    }
+
+    @Test
+    void openBoundsReachTheEndsOfTheAxis() {
+        IntervalIndex index = new IntervalIndex();
+        index.add(1L, null, 500.0);
+        index.add(2L, 500.0, null);
+        assertTrue(index.candidates(0).contains(1L));
+        assertTrue(index.candidates(0.5).contains(1L));
+        assertTrue(index.candidates(500).contains(1L));
+        assertTrue(index.candidates(500).contains(2L));
+        // past the last bucket values are clamped into it
+        assertTrue(index.candidates(1e15).contains(2L));
+        assertFalse(index.candidates(1e15).contains(1L));
+    }
+
+    @Test
+    void valuesBelowOneShareTheFirstBucket() {
+        IntervalIndex index = new IntervalIndex();
+        index.add(1L, 0.0, 0.9);
+        assertTrue(index.candidates(0).contains(1L));
+        assertTrue(index.candidates(0.25).contains(1L));
+        assertTrue(index.candidates(-3).contains(1L));
+        assertFalse(index.candidates(5).contains(1L));
+    }
+
+    @Test
+    void removeClearsEveryBucket() {
+        IntervalIndex index = new IntervalIndex();
+        index.add(1L, 10.0, 100_000.0);
+        index.add(2L, 10.0, 100_000.0);
+        index.remove(1L, 10.0, 100_000.0);
+        for (double value = 10; value <= 100_000; value *= 1.1) {
+            assertFalse(index.candidates(value).contains(1L));
+            assertTrue(index.candidates(value).contains(2L));
+        }
+    }
+}
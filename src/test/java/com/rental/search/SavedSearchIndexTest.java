@@ -0,0 +1,83 @@
+package com.rental.search;
+
+import com.rental.model.response.RentalRes;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SavedSearchIndexTest {
+
+    @Test
+    void keywordSearchesNeedEveryKeyword() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.put(search(1L, null, null, null, null, "sea", "view"));
+        assertEquals(List.of(1L), ids(index.match(rental("Flat with a sea view", 500.0, 40.0))));
+        assertEquals(List.of(), ids(index.match(rental("Flat near the sea", 500.0, 40.0))));
+    }
+
+    @Test
+    void priceBoundsAreInclusive() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.put(search(1L, 500.0, 800.0, null, null));
+        assertEquals(List.of(1L), ids(index.match(rental("Flat", 500.0, 40.0))));
+        assertEquals(List.of(1L), ids(index.match(rental("Flat", 800.0, 40.0))));
+        assertEquals(List.of(), ids(index.match(rental("Flat", 499.99, 40.0))));
+        assertEquals(List.of(), ids(index.match(rental("Flat", 800.01, 40.0))));
+        assertEquals(List.of(), ids(index.match(rental("Flat", null, 40.0))));
+    }
+
+    @Test
+    void searchesFiledUnderOnePathStillCheckTheOthers() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        // filed under its keyword, the price is checked on the candidate
+        index.put(search(1L, null, 600.0, null, null, "garden"));
+        // filed under its price, the surface is checked on the candidate
+        index.put(search(2L, 400.0, null, 30.0, 50.0));
+        // filed under its surface
+        index.put(search(3L, null, null, 45.0, null));
+        assertEquals(List.of(1L, 2L), sorted(index.match(rental("House with garden", 550.0, 40.0))));
+        assertEquals(List.of(2L, 3L), sorted(index.match(rental("House", 700.0, 48.0))));
+        assertEquals(List.of(3L), sorted(index.match(rental("House with garden", 700.0, 60.0))));
+    }
+
+    @Test
+    void unconstrainedSearchesMatchEverything() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.put(search(1L, null, null, null, null));
+        assertEquals(List.of(1L), ids(index.match(rental(null, null, null))));
+    }
+
+    @Test
+    void putReplacesAndRemoveForgets() {
+        SavedSearchIndex index = new SavedSearchIndex();
+        index.put(search(1L, 100.0, 200.0, null, null));
+        index.put(search(1L, null, null, null, null, "loft"));
+        assertEquals(1, index.size());
+        assertEquals(List.of(), ids(index.match(rental("Flat", 150.0, 40.0))));
+        assertEquals(List.of(1L), ids(index.match(rental("Loft", 150.0, 40.0))));
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertEquals(List.of(), ids(index.match(rental("Loft", 150.0, 40.0))));
+    }
+
+    private static SearchCriteria search(Long id, Double minPrice, Double maxPrice,
+                                         Double minSurface, Double maxSurface, String... keywords) {
+        return new SearchCriteria(id, 99L, minPrice, maxPrice, minSurface, maxSurface, Set.of(keywords));
+    }
+
+    private static RentalRes rental(String name, Double price, Double surface) {
+        return new RentalRes(7L, name, surface, price, null, null, null, null, 1L);
+    }
+
+    private static List<Long> ids(List<SearchCriteria> matches) {
+        return matches.stream().map(SearchCriteria::getId).toList();
+    }
+
+    private static List<Long> sorted(List<SearchCriteria> matches) {
+        return ids(matches).stream().sorted().toList();
+    }
+}
@@ -0,0 +1,125 @@
+package com.rental.services;
+
+import com.rental.cache.InvalidationBus;
+import com.rental.entities.User;
+import com.rental.repository.UserRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTest {
+
+    private static final BCryptPasswordEncoder ENCODER = new BCryptPasswordEncoder(4);
+
+    private UserRepository userRepository;
+    private final Map<String, User> users = new HashMap<>();
+    private CustomUserDetailsService service;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail(anyString())).thenAnswer(invocation -> users.get(invocation.<String>getArgument(0)));
+        service = open(2, 60_000);
+    }
+
+    private CustomUserDetailsService open(int maxCached, long ttlMs) {
+        InvalidationBus bus = new InvalidationBus(null, null, "test", 1000, 5000, 3600000, 2000);
+        return new CustomUserDetailsService(userRepository, bus, maxCached, ttlMs);
+    }
+
+    private User user(long id, String email, String password, String role) {
+        User user = new User();
+        user.setId(id);
+        user.setEmail(email);
+        user.setPassword(ENCODER.encode(password));
+        user.setRole(role);
+        users.put(email, user);
+        return user;
+    }
+
+    @Test
+    void theSameUserCanLogInTwice() {
+        user(1, "test@test.com", "secret", null);
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(service);
+        provider.setPasswordEncoder(ENCODER);
+        // erases the credentials of the authenticated user, as the application's does
+        ProviderManager manager = new ProviderManager(provider);
+
+        for (int i = 0; i < 2; i++) {
+            Authentication authentication = manager.authenticate(
+                    new UsernamePasswordAuthenticationToken("test@test.com", "secret"));
+            assertTrue(authentication.isAuthenticated());
+        }
+        assertThrows(BadCredentialsException.class, () -> manager.authenticate(
+                new UsernamePasswordAuthenticationToken("test@test.com", "wrong")));
+        verify(userRepository, times(1)).findByEmail("test@test.com");
+    }
+
+    @Test
+    void everyCallGetsItsOwnDetails() {
+        user(1, "admin@test.com", "secret", "ADMIN");
+        UserDetails first = service.loadUserByUsername("admin@test.com");
+        UserDetails second = service.loadUserByUsername("admin@test.com");
+        assertNotSame(first, second);
+        assertEquals(first.getPassword(), second.getPassword());
+        assertEquals("ROLE_ADMIN", second.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void evictedUsersAreReloaded() {
+        User user = user(1, "test@test.com", "secret", null);
+        service.loadUserByUsername("test@test.com");
+        user.setRole("ADMIN");
+        service.evict(1L);
+        UserDetails reloaded = service.loadUserByUsername("test@test.com");
+        assertEquals("ROLE_ADMIN", reloaded.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(2)).findByEmail("test@test.com");
+    }
+
+    @Test
+    void theLeastRecentlyUsedUserIsDropped() {
+        user(1, "a@test.com", "secret", null);
+        user(2, "b@test.com", "secret", null);
+        user(3, "c@test.com", "secret", null);
+        service.loadUserByUsername("a@test.com");
+        service.loadUserByUsername("b@test.com");
+        service.loadUserByUsername("a@test.com");
+        service.loadUserByUsername("c@test.com");
+        assertEquals(2, service.size());
+
+        service.loadUserByUsername("a@test.com");
+        verify(userRepository, times(1)).findByEmail("a@test.com");
+        service.loadUserByUsername("b@test.com");
+        verify(userRepository, times(2)).findByEmail("b@test.com");
+    }
+
+    @Test
+    void entriesExpire() {
+        CustomUserDetailsService expiring = open(10, 0);
+        user(1, "test@test.com", "secret", null);
+        expiring.loadUserByUsername("test@test.com");
+        expiring.loadUserByUsername("test@test.com");
+        verify(userRepository, times(2)).findByEmail("test@test.com");
+    }
+}
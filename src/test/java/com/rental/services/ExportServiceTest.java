@@ -0,0 +1,187 @@
+package com.rental.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rental.configuration.SpringSecurityConfig;
+import com.rental.entities.Messages;
+import com.rental.entities.Rental;
+import com.rental.entities.User;
+import com.rental.repository.MessagesRepository;
+import com.rental.repository.RentalRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("embedded")
+class ExportServiceTest {
+
+    // enough for a few fetch batches and a partial one
+    private static final int RENTALS = 2 * RentalRepository.STREAM_FETCH_SIZE + 7;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RentalRepository rentalRepository;
+    @Autowired
+    private MessagesRepository messagesRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rentalRepository.count() >= RENTALS) {
+                return;
+            }
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            User owner = new User();
+            owner.setEmail("export-" + System.nanoTime() + "@test.com");
+            owner.setName("Owner");
+            owner.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            owner.setCreatedAt(now);
+            owner.setUpdatedAt(now);
+            entityManager.persist(owner);
+            for (int i = 0; i < RENTALS; i++) {
+                Rental rental = new Rental();
+                rental.setName("Flat " + i);
+                rental.setPrice(500.0 + i);
+                rental.setSurface(40.0);
+                rental.setOwner(owner);
+                entityManager.persist(rental);
+                if (i < 3) {
+                    Messages message = new Messages();
+                    message.setMessage("Still free? " + i);
+                    message.setSender(owner);
+                    message.setRental(rental);
+                    message.setCreatedAt(now);
+                    message.setUpdatedAt(now);
+                    entityManager.persist(message);
+                }
+            }
+        });
+    }
+
+    @Test
+    @WithMockUser(roles = SpringSecurityConfig.REPORTING_ROLE)
+    void writesOneJsonObjectPerLine() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/export/rentals"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("application/x-ndjson;charset=UTF-8", response.getContentType());
+
+        List<JsonNode> rows = parseLines(response.getContentAsByteArray());
+        assertEquals(rentalRepository.count(), rows.size());
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode row : rows) {
+            ids.add(row.get("id").asLong());
+        }
+        assertEquals(rows.size(), ids.size());
+    }
+
+    @Test
+    @WithMockUser(roles = SpringSecurityConfig.REPORTING_ROLE)
+    void compressesWhenTheClientAcceptsGzip() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get("/api/export/messages")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(response.getHeader(HttpHeaders.CONTENT_DISPOSITION).contains("messages.ndjson.gz"));
+
+        List<JsonNode> rows;
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            rows = parseLines(in.readAllBytes());
+        }
+        assertEquals(messagesRepository.count(), rows.size());
+        assertTrue(rows.get(0).get("message").asText().startsWith("Still free?"));
+    }
+
+    @Test
+    void detachesRowsAndClearsThePersistenceContextPerBatch() throws IOException {
+        EntityManager tracked = mock(EntityManager.class, delegatesTo(entityManager));
+        ExportService exportService = new ExportService(rentalRepository, messagesRepository, objectMapper);
+        ReflectionTestUtils.setField(exportService, "entityManager", tracked);
+        // entities still managed each time the generator hands a batch to the stream
+        List<Integer> managedAtFlush = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                managedAtFlush.add(entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+            }
+        };
+
+        long count = transactionTemplate.execute(status -> {
+            try {
+                return exportService.exportRentals(out);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(rentalRepository.count(), count);
+        verify(tracked, times((int) count)).detach(any(Rental.class));
+        verify(tracked, times((int) (count / RentalRepository.STREAM_FETCH_SIZE))).clear();
+        assertTrue(managedAtFlush.size() > count / RentalRepository.STREAM_FETCH_SIZE);
+        for (int managed : managedAtFlush) {
+            assertEquals(0, managed);
+        }
+    }
+
+    // Every line must be exactly one JSON object, with nothing before or after it
+    private List<JsonNode> parseLines(byte[] body) throws IOException {
+        String text = new String(body, StandardCharsets.UTF_8);
+        assertTrue(text.endsWith("\n"));
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : text.substring(0, text.length() - 1).split("\n", -1)) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"), "line '" + line + "'");
+            JsonNode row = objectMapper.readTree(line);
+            assertEquals(line, objectMapper.writeValueAsString(row));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,177 @@
+package com.rental.services;
+
+import com.rental.entities.ConversationSummary;
+import com.rental.entities.Messages;
+import com.rental.entities.Rental;
+import com.rental.entities.User;
+import com.rental.repository.ConversationSummaryRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("embedded")
+class MessagesServiceTest {
+
+    @Autowired
+    private MessagesService messagesService;
+    @Autowired
+    private ConversationSummaryRepository conversationSummaryRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private User owner;
+    private User alice;
+    private User bob;
+    private Rental rental;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate.executeWithoutResult(status -> {
+            owner = user("owner");
+            alice = user("alice");
+            bob = user("bob");
+            rental = new Rental();
+            rental.setName("Flat");
+            rental.setPrice(500.0);
+            rental.setSurface(40.0);
+            rental.setOwner(owner);
+            entityManager.persist(rental);
+        });
+    }
+
+    @Test
+    void sendUpdatesEveryParticipant() {
+        send(alice, "Is it available?");
+        Messages last = send(bob, "Still free?");
+
+        ConversationSummary ownerRow = summary(owner);
+        assertEquals(last.getId(), ownerRow.getLastMessageId());
+        assertEquals("Still free?", ownerRow.getPreview());
+        assertEquals(bob.getId(), ownerRow.getLastSenderId());
+        assertEquals(2, ownerRow.getUnreadCount());
+        assertEquals(1, summary(alice).getUnreadCount());
+        assertEquals(0, summary(bob).getUnreadCount());
+        assertEquals(last.getId(), summary(bob).getLastReadMessageId());
+
+        messagesService.markRead(owner.getId(), rental.getId());
+        assertEquals(0, summary(owner).getUnreadCount());
+        assertEquals(last.getId(), summary(owner).getLastReadMessageId());
+    }
+
+    @Test
+    void anOlderMessageCommittingLastDoesNotOverwriteANewerOne() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        // message 200 by bob commits first, then message 100 by alice
+        record(bob, 200L, "newer", now);
+        record(alice, 100L, "older", now);
+
+        ConversationSummary ownerRow = summary(owner);
+        assertEquals(200L, ownerRow.getLastMessageId());
+        assertEquals("newer", ownerRow.getPreview());
+        assertEquals(bob.getId(), ownerRow.getLastSenderId());
+        // both messages are still unread
+        assertEquals(2, ownerRow.getUnreadCount());
+        assertEquals(200L, summary(bob).getLastMessageId());
+        assertEquals(0, summary(bob).getUnreadCount());
+    }
+
+    @Test
+    void aSendersOlderMessageDoesNotMarkANewerOneRead() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        record(alice, 50L, "first", now);
+        record(bob, 200L, "newer", now);
+        record(alice, 100L, "older", now);
+        ConversationSummary aliceRow = summary(alice);
+        assertEquals(200L, aliceRow.getLastMessageId());
+        assertEquals("newer", aliceRow.getPreview());
+        assertEquals(100L, aliceRow.getLastReadMessageId());
+        assertEquals(1, aliceRow.getUnreadCount());
+    }
+
+    @Test
+    void messagesAlreadyReadAreNotCountedAsUnread() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        record(bob, 200L, "newer", now);
+        messagesService.markRead(owner.getId(), rental.getId());
+        record(alice, 100L, "older", now);
+        assertEquals(0, summary(owner).getUnreadCount());
+    }
+
+    @Test
+    void repairRecomputesRowsAndKeepsReadPositions() {
+        send(alice, "one");
+        send(alice, "two");
+        messagesService.markRead(owner.getId(), rental.getId());
+        Messages last = send(alice, "three");
+        transactionTemplate.executeWithoutResult(status -> entityManager.createQuery(
+                        "update ConversationSummary c set c.unreadCount = 42, c.preview = 'stale' where c.rentalId = :rentalId")
+                .setParameter("rentalId", rental.getId()).executeUpdate());
+
+        messagesService.repairSummaries();
+
+        ConversationSummary ownerRow = summary(owner);
+        assertEquals(1, ownerRow.getUnreadCount());
+        assertEquals("three", ownerRow.getPreview());
+        assertEquals(last.getId(), ownerRow.getLastMessageId());
+        assertEquals(0, summary(alice).getUnreadCount());
+    }
+
+    @Test
+    void repairNeverRewindsARowPastANewerMessage() {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        record(bob, 200L, "newer", now);
+        // what a repair batch computed from messages read before message 200 committed
+        transactionTemplate.executeWithoutResult(status -> conversationSummaryRepository.upsertRepaired(
+                owner.getId(), rental.getId(), 100L, alice.getId(), "older", now, 7, 0L));
+        ConversationSummary ownerRow = summary(owner);
+        assertEquals(200L, ownerRow.getLastMessageId());
+        assertEquals("newer", ownerRow.getPreview());
+        assertEquals(1, ownerRow.getUnreadCount());
+    }
+
+    private Messages send(User sender, String text) {
+        return messagesService.send(sender, rental, text);
+    }
+
+    // The summary writes of one send, with a chosen message id
+    private void record(User sender, Long messageId, String preview, Timestamp at) {
+        transactionTemplate.executeWithoutResult(status -> {
+            conversationSummaryRepository.insertForOwnerIfAbsent(rental.getId(), owner.getId(), at);
+            conversationSummaryRepository.recordForParticipants(rental.getId(), sender.getId(), messageId, preview, at);
+            conversationSummaryRepository.upsertForSender(rental.getId(), sender.getId(), messageId, preview, at);
+        });
+    }
+
+    private ConversationSummary summary(User user) {
+        Supplier<ConversationSummary> find = () -> conversationSummaryRepository
+                .findById(new ConversationSummary.Key(user.getId(), rental.getId())).orElseThrow();
+        return transactionTemplate.execute(status -> find.get());
+    }
+
+    private User user(String name) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "-" + System.nanoTime() + "@test.com");
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+        user.setCreatedAt(now);
+        user.setUpdatedAt(now);
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,133 @@
+package com.rental.services;
+
+import com.rental.events.RentalChangedEvent;
+import com.rental.model.response.RentalRes;
+import com.rental.stats.GroupedStats;
+import com.rental.stats.PriceStats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RentalStatsServiceTest {
+
+    @Test
+    void statsAreBuiltOnceTheSingletonsAreCreated() {
+        // before the web server starts, so the first request already sees every rental
+        ScriptedScan scan = new ScriptedScan(List.of(rental(1L, 100, 7L), rental(2L, 200, 7L)));
+        RentalStatsService service = new RentalStatsService(scan, 0.01, 4);
+        service.afterSingletonsInstantiated();
+        assertEquals(2, service.overall().count());
+        assertEquals(150, service.overall().meanPrice(), 0.0);
+    }
+
+    @Test
+    void rentalDeletedDuringTheRebuildScanStaysDeleted() {
+        List<RentalRes> table = new ArrayList<>(List.of(rental(1L, 100, 7L), rental(2L, 200, 7L)));
+        ScriptedScan scan = new ScriptedScan(table);
+        RentalStatsService service = new RentalStatsService(scan, 0.01, 4);
+        // the scan has already read rental 1 when its delete commits
+        scan.afterFirst = () -> {
+            table.remove(0);
+            service.onRentalChanged(new RentalChangedEvent(RentalChangedEvent.Type.DELETED, 1L, null));
+        };
+        service.rebuild();
+        assertEquals(1, service.overall().count());
+        assertEquals(200, service.overall().meanPrice(), 0.0);
+    }
+
+    @Test
+    void rentalUpdatedDuringTheRebuildScanKeepsItsNewPrice() {
+        List<RentalRes> table = new ArrayList<>(List.of(rental(1L, 100, 7L), rental(2L, 200, 7L)));
+        ScriptedScan scan = new ScriptedScan(table);
+        RentalStatsService service = new RentalStatsService(scan, 0.01, 4);
+        scan.afterFirst = () -> {
+            RentalRes updated = rental(1L, 150, 8L);
+            table.set(0, updated);
+            service.onRentalChanged(new RentalChangedEvent(RentalChangedEvent.Type.UPDATED, 1L, updated));
+        };
+        service.rebuild();
+        GroupedStats owners = service.forOwners(List.of(7L, 8L), true);
+        assertEquals(1, owners.getGroups().get("7").count());
+        assertEquals(150, owners.getGroups().get("8").meanPrice(), 0.0);
+        assertEquals(175, owners.getTotal().meanPrice(), 0.0);
+        assertEquals(2, service.overall().count());
+    }
+
+    @Test
+    void forOwnersReturnsOneEntryPerOwnerInRequestOrder() {
+        ScriptedScan scan = new ScriptedScan(List.of(rental(1L, 100, 7L), rental(2L, 300, 7L), rental(3L, 50, 9L)));
+        RentalStatsService service = new RentalStatsService(scan, 0.01, 4);
+        service.rebuild();
+        GroupedStats owners = service.forOwners(List.of(9L, 42L, 7L, 9L), false);
+        assertEquals(List.of("9", "42", "7"), List.copyOf(owners.getGroups().keySet()));
+        assertEquals(1, owners.getGroups().get("9").count());
+        assertEquals(0, owners.getGroups().get("42").count());
+        assertEquals(200, owners.getGroups().get("7").meanPrice(), 0.0);
+        assertNull(owners.getTotal());
+    }
+
+    @Test
+    void overlappingRegionPrefixesCountARentalOnceInTheTotal() {
+        // Paris (u09t...) and Lyon (u05k...)
+        ScriptedScan scan = new ScriptedScan(List.of(
+                located(1L, 100, 48.85, 2.35), located(2L, 300, 48.86, 2.34), located(3L, 50, 45.76, 4.83)));
+        RentalStatsService service = new RentalStatsService(scan, 0.01, 4);
+        service.rebuild();
+        GroupedStats regions = service.forRegions(List.of("u0", "u09"), true);
+        assertEquals(3, regions.getGroups().get("u0").count());
+        assertEquals(2, regions.getGroups().get("u09").count());
+        assertEquals(3, regions.getTotal().count());
+        assertEquals(150, regions.getTotal().meanPrice(), 0.0);
+    }
+
+    @Test
+    void statsReturnedAreCopies() {
+        ScriptedScan scan = new ScriptedScan(List.of(rental(1L, 100, 7L)));
+        RentalStatsService service = new RentalStatsService(scan, 0.01, 4);
+        service.rebuild();
+        PriceStats overall = service.overall();
+        overall.add(1_000, null);
+        service.forOwners(List.of(7L), false).getGroups().get("7").add(1_000, null);
+        assertEquals(1, service.overall().count());
+        assertEquals(1, service.forOwners(List.of(7L), false).getGroups().get("7").count());
+    }
+
+    private static RentalRes rental(Long id, double price, Long ownerId) {
+        return new RentalRes(id, "Rental " + id, 50.0, price, null, null, null, null, ownerId);
+    }
+
+    private static RentalRes located(Long id, double price, double latitude, double longitude) {
+        return new RentalRes(id, "Rental " + id, 50.0, price, null, null, latitude, longitude, 1L);
+    }
+
+    // Serves rentals from a list, running a hook after the first one like a concurrent write would
+    private static final class ScriptedScan extends RentalScanService {
+        private final List<RentalRes> table;
+        private Runnable afterFirst = () -> { };
+
+        private ScriptedScan(List<RentalRes> table) {
+            super(null);
+            this.table = table;
+        }
+
+        @Override
+        public long scan(Consumer<RentalRes> consumer) {
+            // what the scan's snapshot holds, taken when it starts
+            List<RentalRes> snapshot = List.copyOf(table);
+            long count = 0;
+            for (RentalRes rental : snapshot) {
+                consumer.accept(rental);
+                if (++count == 1) {
+                    afterFirst.run();
+                }
+            }
+            return count;
+        }
+    }
+}
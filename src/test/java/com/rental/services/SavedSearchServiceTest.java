@@ -0,0 +1,71 @@
+package com.rental.services;
+
+import com.rental.cache.InvalidationBus;
+import com.rental.entities.SavedSearch;
+import com.rental.entities.User;
+import com.rental.events.RentalChangedEvent;
+import com.rental.model.response.RentalRes;
+import com.rental.repository.SavedSearchRepository;
+import com.rental.repository.SearchNotificationRepository;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SavedSearchServiceTest {
+
+    @Test
+    void searchesStoredBeforeStartupMatchTheFirstRentalWritten() {
+        SavedSearchRepository savedSearchRepository = mock(SavedSearchRepository.class);
+        SearchNotificationService searchNotificationService = mock(SearchNotificationService.class);
+        when(savedSearchRepository.streamAll()).thenReturn(Stream.of(search(1L, 7L, 400.0, 600.0)));
+        SavedSearchService service = new SavedSearchService(savedSearchRepository, mock(SearchNotificationRepository.class),
+                searchNotificationService, new InvalidationBus(null, null, "test", 1000, 5000, 3600000, 2000),
+                new DirectTransactionTemplate());
+        ReflectionTestUtils.setField(service, "entityManager", mock(EntityManager.class));
+
+        // the index is loaded with the singletons, before the web server takes a request
+        service.afterSingletonsInstantiated();
+        service.onRentalChanged(created(10L, 500.0, 8L));
+        service.onRentalChanged(created(11L, 900.0, 8L));
+
+        verify(searchNotificationService).enqueue(7L, 1L, 10L);
+        verify(searchNotificationService, never()).enqueue(anyLong(), anyLong(), eq(11L));
+    }
+
+    private static SavedSearch search(Long id, Long userId, Double minPrice, Double maxPrice) {
+        User user = new User();
+        user.setId(userId);
+        SavedSearch search = new SavedSearch();
+        search.setId(id);
+        search.setUser(user);
+        search.setMinPrice(minPrice);
+        search.setMaxPrice(maxPrice);
+        return search;
+    }
+
+    private static RentalChangedEvent created(Long id, double price, Long ownerId) {
+        RentalRes rental = new RentalRes(id, "Flat " + id, 40.0, price, null, null, null, null, ownerId);
+        return new RentalChangedEvent(RentalChangedEvent.Type.CREATED, id, rental);
+    }
+
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.rental.services;
+
+import com.rental.entities.SearchNotification;
+import com.rental.repository.SearchNotificationRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchNotificationServiceTest {
+
+    private SearchNotificationRepository repository;
+    private SearchNotificationService service;
+    // what the table holds, keyed "search:rental"
+    private final Set<String> stored = new HashSet<>();
+    // pairs another node commits between our duplicate check and our insert
+    private final Set<String> storedConcurrently = new HashSet<>();
+    private final List<Collection<Long>> queriedSearchIds = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        repository = mock(SearchNotificationRepository.class);
+        when(repository.findPairs(anyCollection(), anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> searchIds = invocation.getArgument(0);
+            Collection<Long> rentalIds = invocation.getArgument(1);
+            queriedSearchIds.add(searchIds);
+            List<Object[]> pairs = new ArrayList<>();
+            for (String pair : stored) {
+                String[] ids = pair.split(":");
+                if (searchIds.contains(Long.valueOf(ids[0])) && rentalIds.contains(Long.valueOf(ids[1]))) {
+                    pairs.add(new Object[]{Long.valueOf(ids[0]), Long.valueOf(ids[1])});
+                }
+            }
+            return pairs;
+        });
+        when(repository.saveAllAndFlush(any(Iterable.class))).thenAnswer(invocation -> {
+            Iterable<SearchNotification> rows = invocation.getArgument(0);
+            Set<String> inserted = new HashSet<>();
+            for (SearchNotification row : rows) {
+                String pair = row.getSavedSearchId() + ":" + row.getRentalId();
+                if (stored.contains(pair) || storedConcurrently.contains(pair) || !inserted.add(pair)) {
+                    // the whole statement batch is rolled back
+                    throw new DataIntegrityViolationException("Duplicate entry '" + pair + "'");
+                }
+            }
+            stored.addAll(inserted);
+            return List.of();
+        });
+        service = new SearchNotificationService(repository, new DirectTransactionTemplate(), 100, 10);
+    }
+
+    @Test
+    void pairsAlreadyStoredOrRepeatedInTheBatchAreSkipped() {
+        stored.add("1:10");
+        service.enqueue(5L, 1L, 10L);
+        service.enqueue(5L, 1L, 11L);
+        service.enqueue(5L, 1L, 11L);
+        service.enqueue(6L, 2L, 10L);
+        service.deliver();
+        assertEquals(Set.of("1:10", "1:11", "2:10"), stored);
+        // the duplicate check only asks about the searches of the batch
+        assertEquals(Set.of(1L, 2L), Set.copyOf(queriedSearchIds.get(0)));
+    }
+
+    @Test
+    void aConcurrentDuplicateOnlyLosesItsOwnRow() {
+        storedConcurrently.add("1:11");
+        service.enqueue(5L, 1L, 10L);
+        service.enqueue(5L, 1L, 11L);
+        service.enqueue(5L, 1L, 12L);
+        service.deliver();
+        assertEquals(Set.of("1:10", "1:12"), stored);
+    }
+
+    @Test
+    void batchesLargerThanTheBatchSizeAreAllDelivered() {
+        for (long rental = 0; rental < 25; rental++) {
+            service.enqueue(5L, 1L, rental);
+        }
+        service.deliver();
+        assertEquals(25, stored.size());
+        assertEquals(0, service.getQueued());
+    }
+
+    // Runs the callback in place; rollback is modelled by the repository throwing
+    private static final class DirectTransactionTemplate extends TransactionTemplate {
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            return action.doInTransaction(new SimpleTransactionStatus());
+        }
+    }
+}
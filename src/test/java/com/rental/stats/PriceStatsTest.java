@@ -0,0 +1,45 @@
+package com.rental.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceStatsTest {
+
+    @Test
+    void meanStaysExactAfterManyAddsAndRemoves() {
+        PriceStats stats = new PriceStats(0.01);
+        stats.add(1_000_000.01, 10.0);
+        for (int i = 0; i < 100_000; i++) {
+            stats.add(0.1 + i % 7 * 0.01, 10.0);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            stats.remove(0.1 + i % 7 * 0.01, 10.0);
+        }
+        stats.add(0.3, null);
+        assertEquals(2, stats.count());
+        assertEquals(500_000.155, stats.meanPrice(), 0.0);
+        // no surface, no price per m²
+        assertEquals(1, stats.getPricePerSquareMeter().count());
+    }
+
+    @Test
+    void mergeAddsCountsAndSums() {
+        PriceStats left = new PriceStats(0.01);
+        left.add(100, 50.0);
+        PriceStats right = new PriceStats(0.01);
+        right.add(300, 100.0);
+        left.merge(right);
+        assertEquals(2, left.count());
+        assertEquals(200, left.meanPrice(), 0.0);
+        assertEquals(1, right.count());
+    }
+
+    @Test
+    void emptyStatsHaveNoMean() {
+        PriceStats stats = new PriceStats(0.01);
+        assertTrue(stats.isEmpty());
+        assertTrue(Double.isNaN(stats.meanPrice()));
+    }
+}
@@ -0,0 +1,164 @@
+package com.rental.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QuantileSketchTest {
+
+    private static final double ACCURACY = 0.01;
+    private static final double[] QUANTILES = {0, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 1};
+
+    @Test
+    void quantilesStayWithinTheRelativeAccuracy() {
+        Random random = new Random(42);
+        double[] uniform = new double[10_000];
+        double[] lognormal = new double[10_000];
+        double[] spread = new double[10_000];
+        for (int i = 0; i < uniform.length; i++) {
+            uniform[i] = 300 + random.nextDouble() * 2_700;
+            lognormal[i] = Math.exp(7 + random.nextGaussian());
+            // six orders of magnitude
+            spread[i] = Math.pow(10, random.nextDouble() * 6 - 2);
+        }
+        assertAccurate(uniform);
+        assertAccurate(lognormal);
+        assertAccurate(spread);
+    }
+
+    private static void assertAccurate(double[] values) {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (double value : values) {
+            sketch.add(value);
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (double q : QUANTILES) {
+            // the sketch uses the lower rank, floor(q * (n - 1))
+            double exact = sorted[(int) (q * (sorted.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertTrue(Math.abs(estimate - exact) <= ACCURACY * exact + 1e-9,
+                    "q" + q + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(sorted[0], sketch.min(), ACCURACY * sorted[0]);
+        assertEquals(sorted[sorted.length - 1], sketch.max(), ACCURACY * sorted[sorted.length - 1]);
+        assertEquals(values.length, sketch.count());
+    }
+
+    @Test
+    void mergeEqualsAddingEverythingToOneSketch() {
+        Random random = new Random(7);
+        QuantileSketch left = new QuantileSketch(ACCURACY);
+        QuantileSketch right = new QuantileSketch(ACCURACY);
+        QuantileSketch all = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < 5_000; i++) {
+            // disjoint ranges, so the merge has to grow the bucket array on both sides
+            double low = 1 + random.nextDouble() * 10;
+            double high = 10_000 + random.nextDouble() * 100_000;
+            left.add(low);
+            right.add(high);
+            all.add(low);
+            all.add(high);
+        }
+        right.add(0);
+        all.add(0);
+        left.merge(right);
+        assertEquals(all.count(), left.count());
+        for (double q : QUANTILES) {
+            assertEquals(all.quantile(q), left.quantile(q), 0.0);
+        }
+        assertEquals(all.min(), left.min(), 0.0);
+        assertEquals(all.max(), left.max(), 0.0);
+    }
+
+    @Test
+    void mergeRejectsADifferentAccuracy() {
+        QuantileSketch sketch = new QuantileSketch(0.01);
+        assertThrows(IllegalArgumentException.class, () -> sketch.merge(new QuantileSketch(0.02)));
+    }
+
+    @Test
+    void removeTakesBackAnEarlierAdd() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        QuantileSketch expected = new QuantileSketch(ACCURACY);
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i * 10);
+            expected.add(i * 10);
+        }
+        sketch.add(5_000);
+        sketch.add(0.5);
+        sketch.add(0);
+        sketch.remove(5_000);
+        sketch.remove(0.5);
+        sketch.remove(0);
+        assertEquals(expected.count(), sketch.count());
+        for (double q : QUANTILES) {
+            assertEquals(expected.quantile(q), sketch.quantile(q), 0.0);
+        }
+        assertEquals(expected.min(), sketch.min(), 0.0);
+        assertEquals(expected.max(), sketch.max(), 0.0);
+    }
+
+    @Test
+    void removingEverythingLeavesAnEmptySketch() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(120);
+        sketch.add(0);
+        sketch.remove(120);
+        sketch.remove(0);
+        assertEquals(0, sketch.count());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertTrue(Double.isNaN(sketch.min()));
+        assertTrue(Double.isNaN(sketch.max()));
+    }
+
+    @Test
+    void copyIsIndependent() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(100);
+        QuantileSketch copy = sketch.copy();
+        copy.add(1_000);
+        assertEquals(1, sketch.count());
+        assertEquals(100, sketch.max(), 1);
+        assertEquals(2, copy.count());
+    }
+
+    @Test
+    void zeroIsCountedApartFromTheLogBuckets() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(50);
+        assertEquals(0, sketch.min(), 0.0);
+        assertEquals(0, sketch.quantile(0.5), 0.0);
+        assertEquals(50, sketch.quantile(1), 50 * ACCURACY);
+    }
+
+    @Test
+    void histogramCountsEveryValue() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        for (int i = 0; i < 1_000; i++) {
+            sketch.add(100 + i);
+        }
+        QuantileSketch.Histogram histogram = sketch.histogram(10);
+        assertEquals(11, histogram.getEdges().length);
+        assertEquals(1_000, Arrays.stream(histogram.getCounts()).sum());
+        assertEquals(sketch.min(), histogram.getEdges()[0], 0.0);
+        assertEquals(sketch.max(), histogram.getEdges()[10], 1e-9);
+    }
+
+    @Test
+    void rejectsNegativeValuesAndBadArguments() {
+        QuantileSketch sketch = new QuantileSketch(ACCURACY);
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(-1));
+        assertThrows(IllegalArgumentException.class, () -> sketch.add(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> sketch.quantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(0));
+        assertThrows(IllegalArgumentException.class, () -> new QuantileSketch(1));
+    }
+}